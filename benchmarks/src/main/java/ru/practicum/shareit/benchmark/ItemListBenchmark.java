@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.dto.BookingBriefDto;
+import ru.practicum.shareit.booking.enumBooking.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemListBenchmark {
+    private static final int COMMENTS_PER_ITEM = 5;
+    private static final int BOOKINGS_PER_ITEM = 20;
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private List<ItemDto> ownerItems;
+    private List<Comment> comments;
+    private BookingTimeline bookingTimeline;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        bookingTimeline = new BookingTimeline(null);
+        ownerItems = new ArrayList<>();
+        comments = new ArrayList<>();
+        long bookingId = 0;
+        for (long i = 0; i < items; i++) {
+            Item item = Item.builder().id(i).name("item " + i).description("item").available(true).owner(owner)
+                    .build();
+            ownerItems.add(new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getRequestId()));
+            for (long c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(Comment.builder().id(i * COMMENTS_PER_ITEM + c).text("comment").item(item)
+                        .author(booker).created(now.minusDays(c)).build());
+            }
+            for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                LocalDateTime start = now.plusDays(b - BOOKINGS_PER_ITEM / 2);
+                bookingTimeline.add(Booking.builder().id(bookingId++).start(start).end(start.plusHours(1))
+                        .item(item).booker(booker).status(Status.APPROVED).build());
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<Long, List<Comment>> groupCommentsByItem() {
+        return comments
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+    }
+
+    @Benchmark
+    public BookingBriefDto[] findLastAndNextBookings() {
+        BookingBriefDto[] result = new BookingBriefDto[ownerItems.size() * 2];
+        for (int i = 0; i < ownerItems.size(); i++) {
+            Long itemId = ownerItems.get(i).getId();
+            result[i * 2] = bookingTimeline.findLast(itemId, now);
+            result[i * 2 + 1] = bookingTimeline.findNext(itemId, now);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemDto> findByUserIdAggregation() {
+        Map<Long, List<Comment>> commentsByItems = groupCommentsByItem();
+        return ownerItems
+                .stream()
+                .map(item -> ItemMapper.withBookings(
+                        item,
+                        bookingTimeline.findLast(item.getId(), now),
+                        bookingTimeline.findNext(item.getId(), now),
+                        commentsByItems.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+}
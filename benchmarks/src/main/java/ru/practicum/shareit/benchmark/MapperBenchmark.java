@@ -0,0 +1,152 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingBriefDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.enumBooking.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int COMMENTS = 10;
+    private static final int REQUEST_ITEMS = 10;
+
+    private Item item;
+    private List<Comment> comments;
+    private BookingBriefDto lastBooking;
+    private BookingBriefDto nextBooking;
+    private Booking booking;
+    private ItemRequest itemRequest;
+    private List<ItemRepository.RequestItemView> requestItems;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        item = Item.builder().id(1L).name("drill").description("cordless drill").available(true)
+                .owner(owner).requestId(1L).build();
+
+        comments = new ArrayList<>();
+        for (long i = 0; i < COMMENTS; i++) {
+            comments.add(Comment.builder().id(i).text("comment " + i).item(item).author(booker)
+                    .created(now.minusDays(i)).build());
+        }
+
+        lastBooking = new BookingBriefDto();
+        lastBooking.setId(1L);
+        lastBooking.setBookerId(booker.getId());
+        nextBooking = new BookingBriefDto();
+        nextBooking.setId(2L);
+        nextBooking.setBookerId(booker.getId());
+
+        booking = Booking.builder().id(1L).start(now).end(now.plusDays(1)).item(item).booker(booker)
+                .status(Status.APPROVED).build();
+
+        itemRequest = ItemRequest.builder().id(1L).description("need a drill").requester(booker).created(now).build();
+        requestItems = new ArrayList<>();
+        for (long i = 0; i < REQUEST_ITEMS; i++) {
+            requestItems.add(new RequestItem(i, "drill " + i, "drill", true, itemRequest.getId()));
+        }
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemDto itemWithCommentsToDto() {
+        return ItemMapper.toItemDto(item, comments);
+    }
+
+    @Benchmark
+    public ItemDto itemWithBookingsAndCommentsToDto() {
+        return ItemMapper.toItemDto(item, lastBooking, nextBooking, comments);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestToDto() {
+        return ItemRequestMapper.toDto(itemRequest);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestWithItemsToDto() {
+        return ItemRequestMapper.toDto(itemRequest, requestItems);
+    }
+
+    private static class RequestItem implements ItemRepository.RequestItemView {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long requestId;
+
+        RequestItem(Long id, String name, String description, Boolean available, Long requestId) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+            this.requestId = requestId;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public Boolean getAvailable() {
+            return available;
+        }
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+    }
+}
@@ -2,15 +2,18 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,45 +21,66 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> saveBooking(Long userId, BookingIncomingDto bookingIncomingDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveBooking(Long userId, BookingIncomingDto bookingIncomingDto) {
         return post("", userId, bookingIncomingDto);
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveBookings(Long userId, List<BookingIncomingDto> bookingIncomingDtos) {
+        return post("/batch", userId, bookingIncomingDtos);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBooking(Long userId, Long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByBooker(Long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByBooker(Long userId, BookingState state, int from, int size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        String path = "?state={state}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByOwner(Long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByOwner(Long userId, BookingState state, int from, int size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        String path = "/owner?state={state}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllByBooker(Long userId, BookingState state) {
+        return stream("/stream?state={state}", userId, Map.of("state", state.name()));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllByOwner(Long userId, BookingState state) {
+        return stream("/owner/stream?state={state}", userId, Map.of("state", state.name()));
     }
 }
\ No newline at end of file
@@ -2,16 +2,22 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Slf4j
 @Controller
@@ -19,44 +25,69 @@ import javax.validation.constraints.PositiveOrZero;
 @Validated
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> saveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @Valid @RequestBody BookingIncomingDto bookingInDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @Valid @RequestBody BookingIncomingDto bookingInDto) {
         return bookingClient.saveBooking(userId, bookingInDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                                       List<@Valid BookingIncomingDto> bookingInDtos) {
+        return bookingClient.saveBookings(userId, bookingInDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId,
-                                                 @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @PathVariable Long bookingId,
+                                                                 @RequestParam boolean approved) {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> findById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PathVariable Long bookingId) {
         return bookingClient.getById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(name = "state", defaultValue = "ALL")
-                                                          String stateBooking,
-                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                  @RequestParam(defaultValue = "20") @Positive int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                  @RequestParam(name = "state", defaultValue = "ALL")
+                                                                          String stateBooking,
+                                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                                  @RequestParam(defaultValue = "20") @Positive int size,
+                                                                  @RequestParam(required = false) String after) {
         BookingState state = BookingState.from(stateBooking);
-        return bookingClient.getAllByBooker(userId, state, from, size);
+        return bookingClient.getAllByBooker(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @RequestParam(name = "state", defaultValue = "ALL")
-                                                         String stateBooking,
-                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                 @RequestParam(defaultValue = "20") @Positive int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam(name = "state", defaultValue = "ALL")
+                                                                         String stateBooking,
+                                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                                 @RequestParam(defaultValue = "20") @Positive int size,
+                                                                 @RequestParam(required = false) String after) {
         BookingState state = BookingState.from(stateBooking);
-        return bookingClient.getAllByOwner(userId, state, from, size);
+        return bookingClient.getAllByOwner(userId, state, from, size, after);
+    }
+
+    @GetMapping("/stream")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @RequestParam(name = "state", defaultValue = "ALL")
+                                                                            String stateBooking) {
+        return bookingClient.streamAllByBooker(userId, BookingState.from(stateBooking));
+    }
+
+    @GetMapping("/owner/stream")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(name = "state", defaultValue = "ALL")
+                                                                           String stateBooking) {
+        return bookingClient.streamAllByOwner(userId, BookingState.from(stateBooking));
     }
 }
\ No newline at end of file
@@ -1,117 +1,169 @@
 package ru.practicum.shareit.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final List<String> NOT_FORWARDED_HEADERS = List.of(
+            HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING
+    );
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    protected final WebClient client;
+
+    public BaseClient(WebClient client) {
+        this.client = client;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> prepareGatewayResponse(
+            ResponseEntity<Flux<DataBuffer>> response) {
+        HttpStatus status = response.getStatusCode();
+        if (!status.isError()) {
+            return Mono.just(ResponseEntity.status(status)
+                    .headers(forwardedHeaders(response.getHeaders()))
+                    .body(response.getBody()));
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return Mono.just(ResponseEntity.status(status)
+                    .contentType(contentType)
+                    .body(response.getBody()));
         }
 
-        return responseBuilder.build();
+        return response.getBody()
+                .doOnNext(DataBufferUtils::release)
+                .then(Mono.fromCallable(() -> json(status, Map.of("error", status.getReasonPhrase()))));
+    }
+
+    private static HttpHeaders forwardedHeaders(HttpHeaders headers) {
+        HttpHeaders forwarded = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (NOT_FORWARDED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                forwarded.addAll(name, values);
+            }
+        });
+        return forwarded;
+    }
+
+    protected static ResponseEntity<Flux<DataBuffer>> json(HttpStatus status, Object body) {
+        try {
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(OBJECT_MAPPER.writeValueAsBytes(body));
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Flux.just(buffer));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize gateway response", e);
+        }
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
+        return exchange(client.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+                    setUserId(headers, userId);
+                }));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> defaultHeaders(headers, userId));
+        return exchange(body != null ? request.bodyValue(body) : request);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private Mono<ResponseEntity<Flux<DataBuffer>>> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .onStatus(HttpStatus::isError, shareitServerResponse -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(BaseClient::prepareGatewayResponse);
+    }
+
+    private void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        setUserId(headers, userId);
+    }
+
+    private void setUserId(HttpHeaders headers, Long userId) {
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+public class ConditionalHeadersFilter implements WebFilter {
+    private static final String CONTEXT_KEY = ConditionalHeadersFilter.class.getName();
+    private static final List<String> CONDITIONAL_HEADERS = List.of(
+            HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE
+    );
+
+    public static ExchangeFilterFunction forwardConditionalHeaders() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            HttpHeaders incoming = context.getOrDefault(CONTEXT_KEY, HttpHeaders.EMPTY);
+            if (request.method() != HttpMethod.GET
+                    || CONDITIONAL_HEADERS.stream().noneMatch(incoming::containsKey)) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .headers(headers -> CONDITIONAL_HEADERS.forEach(name -> {
+                        List<String> values = incoming.get(name);
+                        if (values != null) {
+                            headers.put(name, values);
+                        }
+                    }))
+                    .build());
+        });
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(CONTEXT_KEY, exchange.getRequest().getHeaders()));
+    }
+}
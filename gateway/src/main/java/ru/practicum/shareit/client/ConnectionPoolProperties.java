@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ConnectionPoolProperties {
+    private int maxConnections = 500;
+    private int pendingAcquireMaxCount = -1;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+    private Duration maxIdleTime = Duration.ofSeconds(15);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    private boolean metrics = true;
+    private Map<String, Integer> maxConnectionsPerRoute = new HashMap<>();
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.regex.Pattern;
+
+public class UpstreamMetricsFilter implements ExchangeFilterFunction {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                    .doOnNext(response -> sample.stop(timer(request, String.valueOf(response.rawStatusCode()))))
+                    .doOnError(e -> sample.stop(timer(request, "IO_ERROR")));
+        });
+    }
+
+    private Timer timer(ClientRequest request, String status) {
+        return Timer.builder("shareit.gateway.upstream")
+                .description("Time until the ShareIt server answered with response headers")
+                .tag("method", request.method().name())
+                .tag("uri", ID_SEGMENT.matcher(request.url().getPath()).replaceAll("/{id}"))
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
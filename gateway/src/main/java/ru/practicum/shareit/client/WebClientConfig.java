@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(ConnectionPoolProperties properties) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .lifo()
+                .metrics(properties.isMetrics());
+        properties.getMaxConnectionsPerRoute().forEach((route, maxConnections) ->
+                builder.forRemoteHost(toAddress(route), spec -> spec.maxConnections(maxConnections)));
+        return builder.build();
+    }
+
+    @Bean
+    public HttpClient shareitServerHttpClient(ConnectionProvider shareitServerConnectionProvider,
+                                              ConnectionPoolProperties properties) {
+        return HttpClient.create(shareitServerConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(properties.getResponseTimeout());
+    }
+
+    @Bean
+    public WebClientCustomizer shareitServerConnector(HttpClient shareitServerHttpClient, MeterRegistry meterRegistry) {
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(shareitServerHttpClient))
+                .filter(ConditionalHeadersFilter.forwardConditionalHeaders())
+                .filter(new UpstreamMetricsFilter(meterRegistry));
+    }
+
+    private static InetSocketAddress toAddress(String route) {
+        int separator = route.lastIndexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Route must be host:port, got " + route);
+        }
+        return InetSocketAddress.createUnresolved(route.substring(0, separator),
+                Integer.parseInt(route.substring(separator + 1)));
+    }
+}
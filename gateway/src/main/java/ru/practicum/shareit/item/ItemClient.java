@@ -2,32 +2,38 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentIncomingDto;
 import ru.practicum.shareit.item.dto.ItemIncomingDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ItemSearchCache searchCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ItemSearchCache searchCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
+        this.searchCache = searchCache;
     }
 
-    public ResponseEntity<Object> getAllByUserId(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByUserId(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -35,28 +41,46 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> save(Long userId, ItemIncomingDto itemIncomingDto) {
-        return post("", userId, itemIncomingDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllByUserId(Long userId) {
+        return stream("/stream", userId, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> save(Long userId, ItemIncomingDto itemIncomingDto) {
+        return post("", userId, itemIncomingDto)
+                .doOnNext(this::invalidateSearchCache);
     }
 
-    public ResponseEntity<Object> update(Long itemId, Long userId, ItemIncomingDto itemIncomingDto) {
-        return patch("/" + itemId, userId, itemIncomingDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(Long itemId, Long userId, ItemIncomingDto itemIncomingDto) {
+        return patch("/" + itemId, userId, itemIncomingDto)
+                .doOnNext(this::invalidateSearchCache);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long itemId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findByRequest(String text, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
-                "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findByRequest(String text, int from, int size) {
+        if (text.isBlank()) {
+            return Mono.just(json(HttpStatus.OK, List.of()));
+        }
+        return searchCache.get(text, from, size, query -> {
+            Map<String, Object> parameters = Map.of(
+                    "text", query,
+                    "from", from,
+                    "size", size
+            );
+            return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        });
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentIncomingDto commentIncomingDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(Long userId, Long itemId, CommentIncomingDto commentIncomingDto) {
         return post("/" + itemId + "/comment", userId, commentIncomingDto);
     }
+
+    // Only narrows the staleness window for this instance; the TTL is what bounds it across gateways
+    private void invalidateSearchCache(ResponseEntity<Flux<DataBuffer>> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            searchCache.invalidateAll();
+        }
+    }
 }
\ No newline at end of file
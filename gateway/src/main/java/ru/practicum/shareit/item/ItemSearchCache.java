@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Search results may be stale for up to shareit-gateway.search-cache.ttl. Each gateway instance keeps its own cache
+// and only drops it when an item is created or updated through that instance, so writes made through another
+// gateway (or straight to the server) become visible here only when the entry expires.
+@Slf4j
+@Component
+public class ItemSearchCache {
+    private static final String CACHE_NAME = "item-search";
+
+    private final boolean enabled;
+    private final AsyncCache<Key, CachedResponse> cache;
+
+    public ItemSearchCache(ItemSearchCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, CachedResponse response) -> key.getText().length() + response.getBody().length)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        new CaffeineCacheMetrics(cache.synchronous(), CACHE_NAME, Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("cache.weighted.size", cache, c -> c.synchronous().policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .description("Approximate memory held by cached response bodies")
+                .register(meterRegistry);
+    }
+
+    // Only folds what every server engine ignores: both lower-case with Locale.ROOT, while trigram search matches
+    // spaces literally. The original text is still what goes to the server.
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(String text, int from, int size,
+                                                      Function<String, Mono<ResponseEntity<Flux<DataBuffer>>>> loader) {
+        if (!enabled) {
+            return loader.apply(text);
+        }
+        Key key = new Key(normalize(text), from, size);
+        CompletableFuture<CachedResponse> response = cache.get(key, (k, executor) -> loader.apply(text)
+                .flatMap(CachedResponse::of)
+                .toFuture());
+        return Mono.fromFuture(response.thenApply(cached -> {
+            if (!cached.getStatus().is2xxSuccessful()) {
+                cache.asMap().remove(key, response);
+            }
+            return cached.toEntity();
+        }));
+    }
+
+    public void invalidateAll() {
+        if (enabled) {
+            log.debug("Item search cache invalidated");
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    @Value
+    static class Key {
+        String text;
+        int from;
+        int size;
+    }
+
+    @Value
+    static class CachedResponse {
+        HttpStatus status;
+        HttpHeaders headers;
+        byte[] body;
+
+        static Mono<CachedResponse> of(ResponseEntity<Flux<DataBuffer>> response) {
+            return DataBufferUtils.join(response.getBody())
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .map(bytes -> new CachedResponse(response.getStatusCode(),
+                            HttpHeaders.readOnlyHttpHeaders(response.getHeaders()), bytes));
+        }
+
+        ResponseEntity<Flux<DataBuffer>> toEntity() {
+            return ResponseEntity.status(status)
+                    .headers(headers)
+                    .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+        }
+    }
+}
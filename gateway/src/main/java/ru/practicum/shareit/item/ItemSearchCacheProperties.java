@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.search-cache")
+public class ItemSearchCacheProperties {
+    private boolean enabled = true;
+    private DataSize maxSize = DataSize.ofMegabytes(16);
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -2,11 +2,12 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestIncomingDto;
 
@@ -17,20 +18,19 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> save(Long userId, ItemRequestIncomingDto itemRequestIncomingDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> save(Long userId, ItemRequestIncomingDto itemRequestIncomingDto) {
         return post("", userId, itemRequestIncomingDto);
     }
 
-    public ResponseEntity<Object> findRequestsByOwner(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findRequestsByOwner(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -38,7 +38,7 @@ public class ItemRequestClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findAll(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAll(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,7 +46,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findById(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestIncomingDto;
 import ru.practicum.shareit.validation.Create;
 
@@ -19,28 +22,28 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> save(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                       @Validated(Create.class) @RequestBody ItemRequestIncomingDto requestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> save(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @Validated(Create.class) @RequestBody ItemRequestIncomingDto requestDto) {
         return requestClient.save(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findRequestsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                      @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
-                                                      @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findRequestsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                      @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                                      @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
         return requestClient.findRequestsByOwner(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
-                                          @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                          @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
         return requestClient.findAll(userId, from, size);
     }
 
     @GetMapping("{requestId}")
-    public ResponseEntity<Object> findById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PathVariable Long requestId) {
         return requestClient.findById(userId, requestId);
     }
 }
\ No newline at end of file
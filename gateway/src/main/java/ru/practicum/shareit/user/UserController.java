@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
@@ -17,28 +20,28 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> save(@Validated(Create.class) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> save(@Validated(Create.class) @RequestBody UserDto userDto) {
         return userClient.saveUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable("userId") Long id, @Validated(Update.class)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@PathVariable("userId") Long id, @Validated(Update.class)
     @RequestBody UserDto userDto) {
         return userClient.updateUser(id, userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll() {
         return userClient.getAll();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable("userId") Long id) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(@PathVariable("userId") Long id) {
         return userClient.getById(id);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteById(@PathVariable("userId") Long id) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteById(@PathVariable("userId") Long id) {
         return userClient.deleteById(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO")
+class GatewayLoadTest {
+    private static final Duration UPSTREAM_DELAY = Duration.ofSeconds(1);
+    private static final int WARMUP_REQUESTS = 1_000;
+    private static final int REQUESTS = 4_000;
+    private static final int CONCURRENCY = 2_000;
+    private static final int SERVLET_THREADS = 200;
+
+    private static final DisposableServer upstream = reactor.netty.http.server.HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/users/{id}", (request, response) -> response
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .sendString(Mono.delay(UPSTREAM_DELAY)
+                            .map(tick -> "{\"id\":" + request.param("id")
+                                    + ",\"name\":\"user\",\"email\":\"user@email.ru\"}"))))
+            .bindNow();
+
+    @LocalServerPort
+    int port;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + upstream.port());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    // The blocking proxy stands in for the servlet gateway this module replaced: a thread per request, capped at
+    // Tomcat's default pool, each one waiting on a RestTemplate call to the same delayed upstream.
+    @Test
+    void reactiveGatewayOutperformsBlockingProxy() throws IOException {
+        ThreadPoolExecutor servletThreads = (ThreadPoolExecutor) Executors.newFixedThreadPool(SERVLET_THREADS);
+        HttpServer blockingProxy = startBlockingProxy(servletThreads);
+        try {
+            String reactiveUrl = "http://localhost:" + port;
+            String blockingUrl = "http://localhost:" + blockingProxy.getAddress().getPort();
+            load(reactiveUrl, WARMUP_REQUESTS);
+            load(blockingUrl, WARMUP_REQUESTS);
+
+            long blocking = measure(blockingUrl);
+            long reactive = measure(reactiveUrl);
+            int blockingThreads = servletThreads.getLargestPoolSize();
+            // Event-loop threads are shared by the gateway server, its WebClient and the load generator here
+            long reactiveThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("reactor-http-"))
+                    .count();
+
+            log.info("{} requests, {} in flight, upstream delay {}ms: reactive gateway {} req/s on {} event-loop" +
+                            " threads, blocking proxy {} req/s on {} request threads",
+                    REQUESTS, CONCURRENCY, UPSTREAM_DELAY.toMillis(), reactive, reactiveThreads, blocking,
+                    blockingThreads);
+            assertTrue(reactive > blocking, "reactive " + reactive + " req/s, blocking " + blocking + " req/s");
+            assertTrue(reactiveThreads * 10 <= blockingThreads,
+                    "reactive " + reactiveThreads + " threads, blocking " + blockingThreads + " threads");
+        } finally {
+            blockingProxy.stop(0);
+            servletThreads.shutdownNow();
+        }
+    }
+
+    private HttpServer startBlockingProxy(ThreadPoolExecutor servletThreads) throws IOException {
+        RestTemplate restTemplate = new RestTemplate();
+        String upstreamUrl = "http://localhost:" + upstream.port() + "/users/{id}";
+        HttpServer proxy = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENCY);
+        proxy.setExecutor(servletThreads);
+        proxy.createContext("/users/", exchange -> {
+            String id = exchange.getRequestURI().getPath().substring("/users/".length());
+            byte[] body = restTemplate.getForObject(upstreamUrl, String.class, id).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        proxy.start();
+        return proxy;
+    }
+
+    private long measure(String baseUrl) {
+        long started = System.nanoTime();
+        load(baseUrl, REQUESTS);
+        return REQUESTS * 1_000_000_000L / (System.nanoTime() - started);
+    }
+
+    private void load(String baseUrl, int requests) {
+        ConnectionProvider provider = ConnectionProvider.builder("load-test")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+        try {
+            Long ok = Flux.range(0, requests)
+                    .flatMap(i -> client.get()
+                            .uri("/users/{id}", i)
+                            .retrieve()
+                            .toBodilessEntity(), CONCURRENCY)
+                    .filter(response -> response.getStatusCode().is2xxSuccessful())
+                    .count()
+                    .block();
+            assertEquals(requests, ok);
+        } finally {
+            provider.disposeLater().block();
+        }
+    }
+
+}
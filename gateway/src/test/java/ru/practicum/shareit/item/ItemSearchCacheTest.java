@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    SimpleMeterRegistry meterRegistry;
+    ItemSearchCache cache;
+    AtomicInteger calls;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(new ItemSearchCacheProperties(), meterRegistry);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void identicalQueriesHitServerOnce() {
+        assertEquals("[Drill]", body(cache.get("Drill", 0, 10, loader(HttpStatus.OK))));
+        assertEquals("[Drill]", body(cache.get("dRILL", 0, 10, loader(HttpStatus.OK))));
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void whitespaceIsForwardedAndCachedSeparately() {
+        assertEquals("[ drill]", body(cache.get(" drill", 0, 10, loader(HttpStatus.OK))));
+        assertEquals("[drill]", body(cache.get("drill", 0, 10, loader(HttpStatus.OK))));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void concurrentMissesAreCoalesced() {
+        Sinks.One<ResponseEntity<Flux<DataBuffer>>> server = Sinks.one();
+        Function<String, Mono<ResponseEntity<Flux<DataBuffer>>>> slowLoader = text -> {
+            calls.incrementAndGet();
+            return server.asMono();
+        };
+
+        Mono<ResponseEntity<Flux<DataBuffer>>> first = cache.get("tent", 0, 10, slowLoader);
+        Mono<ResponseEntity<Flux<DataBuffer>>> second = cache.get("tent", 0, 10, slowLoader);
+        server.tryEmitValue(response(HttpStatus.OK, "[tent]"));
+
+        assertEquals("[tent]", body(first));
+        assertEquals("[tent]", body(second));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        body(cache.get("tent", 0, 10, loader(HttpStatus.INTERNAL_SERVER_ERROR)));
+        body(cache.get("tent", 0, 10, loader(HttpStatus.OK)));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void invalidateAllDropsCachedResults() {
+        body(cache.get("tent", 0, 10, loader(HttpStatus.OK)));
+        cache.invalidateAll();
+        body(cache.get("tent", 0, 10, loader(HttpStatus.OK)));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void differentPagesAreCachedSeparately() {
+        body(cache.get("tent", 0, 10, loader(HttpStatus.OK)));
+        body(cache.get("tent", 10, 10, loader(HttpStatus.OK)));
+
+        assertEquals(2, calls.get());
+    }
+
+    private Function<String, Mono<ResponseEntity<Flux<DataBuffer>>>> loader(HttpStatus status) {
+        return text -> {
+            calls.incrementAndGet();
+            return Mono.just(response(status, List.of(text).toString()));
+        };
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> response(HttpStatus status, String body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static String body(Mono<ResponseEntity<Flux<DataBuffer>>> response) {
+        return response.flatMap(entity -> DataBufferUtils.join(entity.getBody()))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+    }
+}
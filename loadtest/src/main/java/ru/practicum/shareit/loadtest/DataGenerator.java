@@ -0,0 +1,226 @@
+package ru.practicum.shareit.loadtest;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+class DataGenerator {
+    private static final int BATCH_SIZE = 1_000;
+    private static final int USERS = 5_000;
+    private static final int HEAVY_OWNERS = 3;
+    private static final int HEAVY_OWNER_ITEMS = 10_000;
+    private static final int TAIL_OWNERS = 1_000;
+    private static final int TAIL_ITEMS = 20_000;
+    private static final int REQUESTS = 3_000;
+    private static final int BOOKINGS = 200_000;
+    private static final double ANSWERED_REQUEST_SHARE = 0.25;
+    private static final double COMMENTED_BOOKING_SHARE = 0.3;
+    private static final double OWNER_EXPONENT = 1.1;
+    private static final double BOOKING_EXPONENT = 1.2;
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final Random random;
+    private final double scale;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    DataGenerator(String jdbcUrl, String user, String password, long seed, double scale) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.random = new Random(seed);
+        this.scale = scale;
+    }
+
+    void generate() throws SQLException {
+        migrate();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            connection.setAutoCommit(false);
+            List<Long> users = generateUsers(connection);
+            List<Long> requests = generateRequests(connection, users);
+            List<long[]> items = generateItems(connection, users, requests);
+            generateBookingsAndComments(connection, users, items);
+        }
+    }
+
+    private void migrate() {
+        String vendor = jdbcUrl.startsWith("jdbc:postgresql:") ? "postgresql" : "h2";
+        Flyway.configure()
+                .dataSource(jdbcUrl, user, password)
+                .locations("classpath:db/migration/common", "classpath:db/migration/" + vendor, "classpath:db/reset")
+                .load()
+                .migrate();
+        log("schema migrated and emptied (%s)", vendor);
+    }
+
+    private List<Long> generateUsers(Connection connection) throws SQLException {
+        int count = scaled(USERS) + HEAVY_OWNERS + TAIL_OWNERS;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users (name, email) VALUES (?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                insert.setString(1, "user" + i);
+                insert.setString(2, "user" + i + "@load.shareit.ru");
+                addBatch(connection, insert, i);
+            }
+            flush(connection, insert);
+        }
+        List<Long> ids = ids(connection, "SELECT id FROM users ORDER BY id");
+        log("users: %d", ids.size());
+        return ids;
+    }
+
+    private List<Long> generateRequests(Connection connection, List<Long> users) throws SQLException {
+        int count = scaled(REQUESTS);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO requests (description, requester_id, date_created) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                insert.setString(1, "Looking for a " + Vocabulary.itemName(random));
+                insert.setLong(2, Vocabulary.pick(users, random));
+                insert.setTimestamp(3, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                addBatch(connection, insert, i);
+            }
+            flush(connection, insert);
+        }
+        List<Long> ids = ids(connection, "SELECT id FROM requests ORDER BY id");
+        log("requests: %d", ids.size());
+        return ids;
+    }
+
+    private List<long[]> generateItems(Connection connection, List<Long> users, List<Long> requests)
+            throws SQLException {
+        List<Long> heavyOwners = users.subList(0, HEAVY_OWNERS);
+        List<Long> tailOwners = users.subList(HEAVY_OWNERS, HEAVY_OWNERS + TAIL_OWNERS);
+        ZipfDistribution tail = new ZipfDistribution(tailOwners.size(), OWNER_EXPONENT);
+        List<Long> owners = new ArrayList<>();
+        for (Long owner : heavyOwners) {
+            owners.addAll(Collections.nCopies(scaled(HEAVY_OWNER_ITEMS), owner));
+        }
+        for (int i = 0; i < scaled(TAIL_ITEMS); i++) {
+            owners.add(tailOwners.get(tail.sample(random)));
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO items (name, description, is_available, owner_id, request_id) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < owners.size(); i++) {
+                String name = Vocabulary.itemName(random);
+                insert.setString(1, name);
+                insert.setString(2, Vocabulary.description(random, name));
+                insert.setBoolean(3, random.nextInt(10) != 0);
+                insert.setLong(4, owners.get(i));
+                if (!requests.isEmpty() && random.nextDouble() < ANSWERED_REQUEST_SHARE) {
+                    insert.setLong(5, Vocabulary.pick(requests, random));
+                } else {
+                    insert.setNull(5, java.sql.Types.BIGINT);
+                }
+                addBatch(connection, insert, i);
+            }
+            flush(connection, insert);
+        }
+
+        List<long[]> items = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement("SELECT id, owner_id FROM items ORDER BY id");
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                items.add(new long[]{rows.getLong(1), rows.getLong(2)});
+            }
+        }
+        log("items: %d (%d owners with %d items each)", items.size(), HEAVY_OWNERS, scaled(HEAVY_OWNER_ITEMS));
+        return items;
+    }
+
+    private void generateBookingsAndComments(Connection connection, List<Long> users, List<long[]> items)
+            throws SQLException {
+        List<long[]> popularity = new ArrayList<>(items);
+        Collections.shuffle(popularity, random);
+        ZipfDistribution itemDistribution = new ZipfDistribution(popularity.size(), BOOKING_EXPONENT);
+        int[] slots = new int[popularity.size()];
+        LocalDateTime firstSlot = now.minusYears(1);
+        int count = scaled(BOOKINGS);
+        int comments = 0;
+
+        try (PreparedStatement bookingInsert = connection.prepareStatement(
+                "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement commentInsert = connection.prepareStatement(
+                     "INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                int rank = itemDistribution.sample(random);
+                long[] item = popularity.get(rank);
+                long booker = Vocabulary.pick(users, random);
+                while (booker == item[1]) {
+                    booker = Vocabulary.pick(users, random);
+                }
+                LocalDateTime start = firstSlot.plusDays(2L * slots[rank]++).plusHours(random.nextInt(12));
+                LocalDateTime end = start.plusHours(1 + random.nextInt(36));
+                String status = status(end);
+
+                bookingInsert.setTimestamp(1, Timestamp.valueOf(start));
+                bookingInsert.setTimestamp(2, Timestamp.valueOf(end));
+                bookingInsert.setLong(3, item[0]);
+                bookingInsert.setLong(4, booker);
+                bookingInsert.setString(5, status);
+                addBatch(connection, bookingInsert, i);
+
+                if ("APPROVED".equals(status) && end.isBefore(now) && random.nextDouble() < COMMENTED_BOOKING_SHARE) {
+                    LocalDateTime created = end.plusDays(1).isBefore(now) ? end.plusDays(1) : now;
+                    commentInsert.setString(1, "Worked great, " + Vocabulary.pick(Vocabulary.CONDITIONS, random));
+                    commentInsert.setLong(2, item[0]);
+                    commentInsert.setLong(3, booker);
+                    commentInsert.setTimestamp(4, Timestamp.valueOf(created));
+                    addBatch(connection, commentInsert, comments++);
+                }
+            }
+            flush(connection, bookingInsert);
+            flush(connection, commentInsert);
+        }
+        log("bookings: %d, comments: %d, most booked item has %d bookings", count, comments, slots[0]);
+    }
+
+    private String status(LocalDateTime end) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(now)) {
+            return roll < 80 ? "APPROVED" : roll < 90 ? "REJECTED" : "CANCELED";
+        }
+        return roll < 50 ? "APPROVED" : roll < 90 ? "WAITING" : "REJECTED";
+    }
+
+    private int scaled(int count) {
+        return Math.max(1, (int) Math.round(count * scale));
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement insert, int index) throws SQLException {
+        insert.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            flush(connection, insert);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private static List<Long> ids(Connection connection, String sql) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(sql);
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.println("[generate] " + String.format(format, args));
+    }
+}
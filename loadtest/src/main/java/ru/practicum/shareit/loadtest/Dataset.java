@@ -0,0 +1,72 @@
+package ru.practicum.shareit.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+class Dataset {
+    private static final int MAX_SAMPLE = 100_000;
+
+    final List<Long> users;
+    final List<Long> ownersByItemCount;
+    final List<long[]> items;
+    final List<long[]> bookings;
+    final List<Long> requests;
+
+    private Dataset(List<Long> users, List<Long> ownersByItemCount, List<long[]> items, List<long[]> bookings,
+                    List<Long> requests) {
+        this.users = users;
+        this.ownersByItemCount = ownersByItemCount;
+        this.items = items;
+        this.bookings = bookings;
+        this.requests = requests;
+    }
+
+    static Dataset load(String jdbcUrl, String user, String password) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            Dataset dataset = new Dataset(
+                    column(connection, "SELECT id FROM users ORDER BY id"),
+                    column(connection, "SELECT owner_id FROM items GROUP BY owner_id ORDER BY COUNT(*) DESC"),
+                    pairs(connection, "SELECT id, owner_id FROM items ORDER BY id"),
+                    pairs(connection, "SELECT b.id, b.booker_id FROM bookings b ORDER BY b.id"),
+                    column(connection, "SELECT id FROM requests ORDER BY id"));
+            if (dataset.users.isEmpty() || dataset.items.isEmpty() || dataset.bookings.isEmpty()) {
+                throw new IllegalStateException("Database is empty, run the generate command first");
+            }
+            System.out.printf("[run] dataset: %d users, %d owners, %d items, %d bookings sampled, %d requests%n",
+                    dataset.users.size(), dataset.ownersByItemCount.size(), dataset.items.size(),
+                    dataset.bookings.size(), dataset.requests.size());
+            return dataset;
+        }
+    }
+
+    private static List<Long> column(Connection connection, String sql) throws SQLException {
+        List<Long> values = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            select.setMaxRows(MAX_SAMPLE);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    values.add(rows.getLong(1));
+                }
+            }
+        }
+        return values;
+    }
+
+    private static List<long[]> pairs(Connection connection, String sql) throws SQLException {
+        List<long[]> values = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            select.setMaxRows(MAX_SAMPLE);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    values.add(new long[]{rows.getLong(1), rows.getLong(2)});
+                }
+            }
+        }
+        return values;
+    }
+}
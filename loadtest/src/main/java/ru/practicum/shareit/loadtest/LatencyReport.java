@@ -0,0 +1,113 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+class LatencyReport {
+    private static final String HEADER_FORMAT = "%-22s %9s %8s %8s %9s %9s %9s %9s%n";
+    private static final String ROW_FORMAT = "%-22s %9d %8d %8.1f %9.2f %9.2f %9.2f %9.2f%n";
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final List<Row> rows = new ArrayList<>();
+
+    void record(String endpoint, long elapsedNanos, int status) {
+        recorders.computeIfAbsent(endpoint, name -> new Recorder()).record(elapsedNanos, status);
+    }
+
+    void finish(Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        new TreeMap<>(recorders).forEach((endpoint, recorder) -> rows.add(recorder.toRow(endpoint, seconds)));
+        Recorder total = new Recorder();
+        recorders.values().forEach(total::merge);
+        rows.add(total.toRow("TOTAL", seconds));
+    }
+
+    void print(PrintStream out) {
+        out.printf(HEADER_FORMAT, "endpoint", "requests", "errors", "rps", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        rows.forEach(row -> out.printf(ROW_FORMAT, row.endpoint, row.requests, row.errors, row.throughput,
+                row.p50, row.p95, row.p99, row.max));
+    }
+
+    void writeCsv(String file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8))) {
+            out.println("endpoint,requests,errors,rps,p50_ms,p95_ms,p99_ms,max_ms");
+            rows.forEach(row -> out.printf("%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n", row.endpoint, row.requests,
+                    row.errors, row.throughput, row.p50, row.p95, row.p99, row.max));
+        }
+    }
+
+    private static class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long elapsedNanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = elapsedNanos;
+            if (status < 0 || status >= 500) {
+                errors++;
+            }
+        }
+
+        synchronized void merge(Recorder other) {
+            synchronized (other) {
+                for (int i = 0; i < other.count; i++) {
+                    record(other.latencies[i], 200);
+                }
+                errors += other.errors;
+            }
+        }
+
+        synchronized Row toRow(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Row(endpoint, count, errors, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    private static class Row {
+        final String endpoint;
+        final long requests;
+        final long errors;
+        final double throughput;
+        final double p50;
+        final double p95;
+        final double p99;
+        final double max;
+
+        Row(String endpoint, long requests, long errors, double throughput, double p50, double p95, double p99,
+            double max) {
+            this.endpoint = endpoint;
+            this.requests = requests;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class LoadRunner {
+    private static final double OWNER_EXPONENT = 1.1;
+
+    private final Dataset dataset;
+    private final String gateway;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long seed;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final HttpClient client;
+
+    LoadRunner(Dataset dataset, String gateway, int concurrency, Duration warmup, Duration duration, long seed) {
+        this.dataset = dataset;
+        this.gateway = gateway;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.seed = seed;
+        this.scenarios = Scenario.all(new ZipfDistribution(dataset.ownersByItemCount.size(), OWNER_EXPONENT));
+        this.totalWeight = scenarios.stream().mapToInt(scenario -> scenario.weight).sum();
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    LatencyReport run() throws Exception {
+        System.out.printf("[run] %d virtual users against %s, warmup %ss, measuring %ss%n", concurrency, gateway,
+                warmup.toSeconds(), duration.toSeconds());
+        LatencyReport report = new LatencyReport();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Random random = new Random(seed + i);
+                running.add(users.submit(() -> {
+                    loop(random, measureFrom, deadline, report);
+                    return null;
+                }));
+            }
+            for (Future<?> user : running) {
+                user.get();
+            }
+        } finally {
+            users.shutdownNow();
+        }
+        report.finish(duration);
+        return report;
+    }
+
+    private void loop(Random random, long measureFrom, long deadline, LatencyReport report) {
+        while (true) {
+            Scenario scenario = pick(random);
+            HttpRequest request = scenario.build(gateway, dataset, random);
+            long started = System.nanoTime();
+            if (started >= deadline) {
+                return;
+            }
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - started;
+            if (started >= measureFrom) {
+                report.record(scenario.name, elapsed, status);
+            }
+        }
+    }
+
+    private Scenario pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("Scenario weights are inconsistent");
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class LoadTest {
+    private static final String USAGE = "Usage:\n" +
+            "  generate --jdbc-url=<url> [--db-user=sa] [--db-password=] [--scale=1.0] [--seed=42]\n" +
+            "  run --jdbc-url=<url> [--db-user=sa] [--db-password=] [--gateway=http://localhost:8080]\n" +
+            "      [--concurrency=32] [--warmup=15s] [--duration=60s] [--report=<csv file>] [--seed=42]";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println(USAGE);
+            return;
+        }
+        Map<String, String> options = parseOptions(args);
+        String jdbcUrl = required(options, "jdbc-url");
+        String user = options.getOrDefault("db-user", "sa");
+        String password = options.getOrDefault("db-password", "");
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        switch (args[0]) {
+            case "generate":
+                new DataGenerator(jdbcUrl, user, password, seed,
+                        Double.parseDouble(options.getOrDefault("scale", "1.0")))
+                        .generate();
+                break;
+            case "run":
+                Dataset dataset = Dataset.load(jdbcUrl, user, password);
+                LatencyReport report = new LoadRunner(dataset,
+                        options.getOrDefault("gateway", "http://localhost:8080"),
+                        Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                        parseDuration(options.getOrDefault("warmup", "15s")),
+                        parseDuration(options.getOrDefault("duration", "60s")),
+                        seed)
+                        .run();
+                report.print(System.out);
+                if (options.containsKey("report")) {
+                    report.writeCsv(options.get("report"));
+                }
+                break;
+            default:
+                System.out.println(USAGE);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Unexpected argument " + arg + "\n" + USAGE);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required\n" + USAGE);
+        }
+        return value;
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+}
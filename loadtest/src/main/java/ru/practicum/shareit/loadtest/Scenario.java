@@ -0,0 +1,84 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+class Scenario {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    final String name;
+    final int weight;
+    private final RequestFactory request;
+
+    private Scenario(String name, int weight, RequestFactory request) {
+        this.name = name;
+        this.weight = weight;
+        this.request = request;
+    }
+
+    HttpRequest build(String gateway, Dataset dataset, Random random) {
+        return request.create(gateway, dataset, random).build();
+    }
+
+    static List<Scenario> all(ZipfDistribution ownerPopularity) {
+        return List.of(
+                new Scenario("GET /users/{id}", 10, (gateway, data, random) ->
+                        get(gateway, "/users/" + Vocabulary.pick(data.users, random))),
+                new Scenario("GET /items", 10, (gateway, data, random) ->
+                        get(gateway, "/items?from=0&size=10")
+                                .header(USER_HEADER, owner(data, ownerPopularity, random))),
+                new Scenario("GET /items/{id}", 20, (gateway, data, random) -> {
+                    long[] item = Vocabulary.pick(data.items, random);
+                    long userId = random.nextBoolean() ? item[1] : Vocabulary.pick(data.users, random);
+                    return get(gateway, "/items/" + item[0]).header(USER_HEADER, String.valueOf(userId));
+                }),
+                new Scenario("GET /items/search", 15, (gateway, data, random) ->
+                        get(gateway, "/items/search?from=0&size=10&text="
+                                + Vocabulary.searchText(random).replace(" ", "%20"))),
+                new Scenario("GET /bookings/owner", 10, (gateway, data, random) ->
+                        get(gateway, "/bookings/owner?from=0&size=20&state=" + Vocabulary.pick(STATES, random))
+                                .header(USER_HEADER, owner(data, ownerPopularity, random))),
+                new Scenario("GET /bookings", 10, (gateway, data, random) ->
+                        get(gateway, "/bookings?from=0&size=20&state=" + Vocabulary.pick(STATES, random))
+                                .header(USER_HEADER, String.valueOf(Vocabulary.pick(data.bookings, random)[1]))),
+                new Scenario("GET /bookings/{id}", 5, (gateway, data, random) -> {
+                    long[] booking = Vocabulary.pick(data.bookings, random);
+                    return get(gateway, "/bookings/" + booking[0]).header(USER_HEADER, String.valueOf(booking[1]));
+                }),
+                new Scenario("GET /requests/all", 5, (gateway, data, random) ->
+                        get(gateway, "/requests/all?from=0&size=10")
+                                .header(USER_HEADER, String.valueOf(Vocabulary.pick(data.users, random)))),
+                new Scenario("GET /requests/{id}", 5, (gateway, data, random) ->
+                        get(gateway, "/requests/" + Vocabulary.pick(data.requests, random))
+                                .header(USER_HEADER, String.valueOf(Vocabulary.pick(data.users, random)))),
+                new Scenario("POST /bookings", 10, (gateway, data, random) -> {
+                    long[] item = Vocabulary.pick(data.items, random);
+                    long booker = Vocabulary.pick(data.users, random);
+                    LocalDateTime start = LocalDateTime.now().plusYears(200).plusMinutes(random.nextInt(5_000_000))
+                            .truncatedTo(ChronoUnit.SECONDS);
+                    String body = "{\"itemId\":" + item[0] + ",\"start\":\"" + start + "\",\"end\":\""
+                            + start.plusHours(2) + "\"}";
+                    return HttpRequest.newBuilder(URI.create(gateway + "/bookings"))
+                            .header("Content-Type", "application/json")
+                            .header(USER_HEADER, String.valueOf(booker))
+                            .POST(HttpRequest.BodyPublishers.ofString(body));
+                }));
+    }
+
+    private static String owner(Dataset data, ZipfDistribution ownerPopularity, Random random) {
+        return String.valueOf(data.ownersByItemCount.get(ownerPopularity.sample(random)));
+    }
+
+    private static HttpRequest.Builder get(String gateway, String path) {
+        return HttpRequest.newBuilder(URI.create(gateway + path)).GET();
+    }
+
+    private interface RequestFactory {
+        HttpRequest.Builder create(String gateway, Dataset data, Random random);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.List;
+import java.util.Random;
+
+final class Vocabulary {
+    static final List<String> NOUNS = List.of("drill", "ladder", "tent", "bike", "kayak", "camera", "projector",
+            "saw", "guitar", "grill", "scooter", "telescope", "sleeping bag", "snowboard", "lawn mower", "speaker",
+            "hammock", "pressure washer", "sewing machine", "stroller");
+    static final List<String> ADJECTIVES = List.of("cordless", "folding", "electric", "vintage", "compact",
+            "professional", "portable", "heavy duty", "lightweight", "waterproof");
+    static final List<String> CONDITIONS = List.of("almost new", "well used", "recently serviced",
+            "with spare parts", "in original box", "slightly scratched");
+
+    private Vocabulary() {
+    }
+
+    static String itemName(Random random) {
+        return pick(ADJECTIVES, random) + " " + pick(NOUNS, random);
+    }
+
+    static String description(Random random, String name) {
+        return name + ", " + pick(CONDITIONS, random) + ", pick up in district " + (1 + random.nextInt(30));
+    }
+
+    static String searchText(Random random) {
+        return random.nextInt(4) == 0 ? pick(ADJECTIVES, random) : pick(NOUNS, random);
+    }
+
+    static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
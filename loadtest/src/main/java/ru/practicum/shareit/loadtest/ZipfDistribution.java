@@ -0,0 +1,25 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class ZipfDistribution {
+    private final double[] cumulative;
+
+    ZipfDistribution(int size, double exponent) {
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
@@ -2,7 +2,15 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableRetry
+@EnableCaching
+@EnableScheduling
+@ConfigurationPropertiesScan
 @SpringBootApplication
 public class ShareItServer {
     public static void main(String[] args) {
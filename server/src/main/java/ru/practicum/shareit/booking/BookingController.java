@@ -1,17 +1,25 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.ndjson.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService service;
+    private final NdjsonWriter ndjsonWriter;
 
     @PostMapping()
     public BookingDto save(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -19,6 +27,12 @@ public class BookingController {
         return service.save(userId, bookingInDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> saveAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestBody List<BookingIncomingDto> bookingInDtos) {
+        return service.saveAll(userId, bookingInDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable Long bookingId,
@@ -27,25 +41,58 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
+    public BookingDto findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
+                               WebRequest request) {
+        if (request.checkNotModified(service.getETag(userId, bookingId))) {
+            return null;
+        }
         return service.findById(userId, bookingId);
     }
 
     @GetMapping()
-    public List<BookingDto> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                    @RequestParam(required = false) String state,
-                                    @RequestParam(required = false) int from,
-                                    @RequestParam(required = false) int size) {
-        return service.findAllForBooker(userId, state.toUpperCase(), from, size);
+    public ResponseEntity<List<BookingDto>> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(required = false) String state,
+                                                    @RequestParam(required = false) int from,
+                                                    @RequestParam(required = false) int size,
+                                                    @RequestParam(required = false) String after) {
+        List<BookingDto> bookings = after == null
+                ? service.findAllForBooker(userId, state.toUpperCase(), from, size)
+                : service.findAllForBookerAfter(userId, state.toUpperCase(), BookingCursor.decode(after), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(required = false) String state,
-                                         @RequestParam(required = false) int from,
-                                         @RequestParam(required = false) int size) {
-        return service.findAllForOwner(userId, state.toUpperCase(), from, size);
+    public ResponseEntity<List<BookingDto>> findAllOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(required = false) String state,
+                                                         @RequestParam(required = false) int from,
+                                                         @RequestParam(required = false) int size,
+                                                         @RequestParam(required = false) String after) {
+        List<BookingDto> bookings = after == null
+                ? service.findAllForOwner(userId, state.toUpperCase(), from, size)
+                : service.findAllForOwnerAfter(userId, state.toUpperCase(), BookingCursor.decode(after), size);
+        return withNextCursor(bookings, size);
+    }
+
+    @GetMapping("/stream")
+    public void streamAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                          @RequestParam(defaultValue = "ALL") String state,
+                          HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, consumer -> service.streamAllForBooker(userId, state.toUpperCase(), consumer));
     }
 
+    @GetMapping("/owner/stream")
+    public void streamAllOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               @RequestParam(defaultValue = "ALL") String state,
+                               HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, consumer -> service.streamAllForOwner(userId, state.toUpperCase(), consumer));
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+import ru.practicum.shareit.event.OutboxEventHandler;
+
+@Component
+public class BookingMetrics implements OutboxEventHandler {
+    private final Counter created;
+    private final Counter approved;
+    private final Counter rejected;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        created = counter(meterRegistry, "created");
+        approved = counter(meterRegistry, "approved");
+        rejected = counter(meterRegistry, "rejected");
+    }
+
+    @Override
+    public String name() {
+        return "booking-metrics";
+    }
+
+    @Override
+    public boolean supports(EventType type) {
+        return type == EventType.BOOKING_CREATED || type == EventType.BOOKING_APPROVED
+                || type == EventType.BOOKING_REJECTED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        switch (event.getType()) {
+            case BOOKING_CREATED:
+                created.increment();
+                break;
+            case BOOKING_APPROVED:
+                approved.increment();
+                break;
+            case BOOKING_REJECTED:
+                rejected.increment();
+                break;
+            default:
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String event) {
+        return Counter.builder("shareit.bookings")
+                .description("Committed booking state changes")
+                .tag("event", event)
+                .register(meterRegistry);
+    }
+}
@@ -1,68 +1,130 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enumBooking.Status;
 import ru.practicum.shareit.exception.NotFoundException;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Sort SORT_BY_DESC = Sort.by(Sort.Direction.DESC, "start");
+    Sort SORT_BY_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+    String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status," +
+            " i.id, i.name, i.description, i.available, i.requestId, u.id, u.name, u.email)" +
+            " from Booking b join b.item i join b.booker u ";
+
+    @Override
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
     default Booking get(Long id) {
         return findById(id).orElseThrow(() -> new NotFoundException("Booking with id=" + id + " not found"));
     }
 
-    List<Booking> findAllByBookerId(Long userId, Pageable pageable);
+    @Query(BOOKING_DTO + "where b.booker.id=?1")
+    List<BookingDto> findAllByBookerId(Long userId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long userId, LocalDateTime dateTime, Pageable pageable);
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and b.end<?2")
+    List<BookingDto> findAllByBookerIdAndEndBefore(Long userId, LocalDateTime dateTime, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id = ?1 and b.item.id = ?2 and b.end <= ?3")
-    List<Booking> findAllByBookerIdAndItemId(Long userId, Long itemId, LocalDateTime time);
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and b.start>?2")
+    List<BookingDto> findAllFutureForBooker(Long userId, LocalDateTime dateTime, Pageable pageable);
 
-    @Query("select b from Booking b where  b.booker.id=?1 and b.start>?2")
-    List<Booking> findAllFutureForBooker(Long userId, LocalDateTime dateTime, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and b.start>?2")
+    List<BookingDto> findAllFutureForOwner(Long userId, LocalDateTime dateTime, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id=?1 and b.start>?2")
-    List<Booking> findAllFutureForOwner(Long userId, LocalDateTime dateTime, Pageable pageable);
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and b.status=?2")
+    List<BookingDto> findAllByBookerIdAndStatusEquals(Long userid, Status status, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStatusEquals(Long userid, Status status, Pageable pageable);
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and ?2 between b.start and b.end order by b.start")
+    List<BookingDto> findAllByBookerCurrent(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id=?1 and ?2 between b.start and b.end order by b.start")
-    List<Booking> findAllByBookerCurrent(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id=?1")
+    List<BookingDto> findAllByOwner(Long userId, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id=?1")
-    List<Booking> findAllByOwner(Long userId, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and ?2 between b.start and b.end order by b.start")
+    List<BookingDto> findAllByOwnerCurrent(Long ownerId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id=?1 and ?2 between b.start and b.end order by b.start")
-    List<Booking> findAllByOwnerCurrent(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id =?1 and b.end< ?2")
+    List<BookingDto> findAllByOwnerAndEndBefore(Long userId, LocalDateTime end, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id =?1 and b.end< ?2")
-    List<Booking> findAllByOwnerAndEndBefore(Long userId, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and b.status=?2")
+    List<BookingDto> findAllByOwnerAndStatus(Long userId, Status status, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id=?1 and b.status=?2")
-    List<Booking> findAllByOwnerAndStatus(Long userId, Status status, Pageable pageable);
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and (b.start<?2 or (b.start=?2 and b.id<?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllByBookerIdAfter(Long userId, LocalDateTime start, Long id, Pageable pageable);
 
-    Booking getFirstByItemIdAndStartLessThanEqualAndStatusOrderByStartDesc(long itemId, LocalDateTime now, Status status);
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and b.status=?2 and (b.start<?3 or (b.start=?3 and b.id<?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllByBookerIdAndStatusAfter(Long userId, Status status, LocalDateTime start, Long id,
+                                                     Pageable pageable);
 
-    Booking getFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(long itemId, LocalDateTime now, Status status);
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and ?2 between b.start and b.end " +
+            "and (b.start>?3 or (b.start=?3 and b.id<?4)) order by b.start, b.id desc")
+    List<BookingDto> findAllByBookerCurrentAfter(Long userId, LocalDateTime now, LocalDateTime start, Long id,
+                                                 Pageable pageable);
 
-    default Booking getLastForItem(long itemId, LocalDateTime now, Status status) {
-        return getFirstByItemIdAndStartLessThanEqualAndStatusOrderByStartDesc(itemId, now, status);
-    }
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and b.end<?2 and (b.start<?3 or (b.start=?3 and b.id<?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllPastForBookerAfter(Long userId, LocalDateTime now, LocalDateTime start, Long id,
+                                               Pageable pageable);
 
-    default Booking getNextForItem(long itemId, LocalDateTime now, Status status) {
-        return getFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(itemId, now, status);
-    }
+    @Query(BOOKING_DTO + "where b.booker.id=?1 and b.start>?2 and (b.start<?3 or (b.start=?3 and b.id<?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllFutureForBookerAfter(Long userId, LocalDateTime now, LocalDateTime start, Long id,
+                                                 Pageable pageable);
+
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and (b.start<?2 or (b.start=?2 and b.id<?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllByOwnerAfter(Long userId, LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and b.status=?2 " +
+            "and (b.start<?3 or (b.start=?3 and b.id<?4)) order by b.start desc, b.id desc")
+    List<BookingDto> findAllByOwnerAndStatusAfter(Long userId, Status status, LocalDateTime start, Long id,
+                                                  Pageable pageable);
+
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and ?2 between b.start and b.end " +
+            "and (b.start>?3 or (b.start=?3 and b.id<?4)) order by b.start, b.id desc")
+    List<BookingDto> findAllByOwnerCurrentAfter(Long userId, LocalDateTime now, LocalDateTime start, Long id,
+                                                Pageable pageable);
+
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and b.end<?2 " +
+            "and (b.start<?3 or (b.start=?3 and b.id<?4)) order by b.start desc, b.id desc")
+    List<BookingDto> findAllPastForOwnerAfter(Long userId, LocalDateTime now, LocalDateTime start, Long id,
+                                              Pageable pageable);
+
+    @Query(BOOKING_DTO + "where i.owner.id=?1 and b.start>?2 " +
+            "and (b.start<?3 or (b.start=?3 and b.id<?4)) order by b.start desc, b.id desc")
+    List<BookingDto> findAllFutureForOwnerAfter(Long userId, LocalDateTime now, LocalDateTime start, Long id,
+                                                Pageable pageable);
 
-    List<Booking> getAllByItemIdInAndStatus(Collection<Long> itemIds, Status status);
+    Page<Booking> findAllByStatus(Status status, Pageable pageable);
 
-    @Query("select count (b) from Booking b where b.booker.id=?1 and b.item.id=?2 and b.end<?3 " +
-            "and b.status= ru.practicum.shareit.booking.enumBooking.Status.APPROVED")
-    Integer countCompletedBooking(Long bookerId, Long itemId, LocalDateTime now);
+    boolean existsByBookerIdAndItemIdAndEndBeforeAndStatus(Long bookerId, Long itemId, LocalDateTime end,
+                                                           Status status);
+
+    @Query("select b.version as version, i.version as itemVersion, u.version as bookerVersion, u.id as bookerId," +
+            " i.owner.id as ownerId from Booking b join b.item i join b.booker u where b.id = ?1")
+    Optional<VersionView> findVersionById(Long id);
+
+    interface VersionView {
+        Long getVersion();
+
+        Long getItemVersion();
+
+        Long getBookerVersion();
+
+        Long getBookerId();
+
+        Long getOwnerId();
+    }
 }
\ No newline at end of file
@@ -1,18 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto save(Long userId, BookingIncomingDto bookingInDto);
 
+    List<BookingBatchResultDto> saveAll(Long userId, List<BookingIncomingDto> bookingInDtos);
+
     BookingDto approve(Long userId, Long bookingId, Boolean approved);
 
     BookingDto findById(Long userId, Long bookingId);
 
+    String getETag(Long userId, Long bookingId);
+
     List<BookingDto> findAllForOwner(Long userId, String state, int from, int size);
 
     List<BookingDto> findAllForBooker(Long userId, String state, int from, int size);
+
+    List<BookingDto> findAllForOwnerAfter(Long userId, String state, BookingCursor after, int size);
+
+    List<BookingDto> findAllForBookerAfter(Long userId, String state, BookingCursor after, int size);
+
+    void streamAllForOwner(Long userId, String state, Consumer<? super BookingDto> consumer);
+
+    void streamAllForBooker(Long userId, String state, Consumer<? super BookingDto> consumer);
 }
\ No newline at end of file
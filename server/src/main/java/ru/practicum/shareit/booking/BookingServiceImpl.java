@@ -2,25 +2,47 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enumBooking.Status;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEventPublisher;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.InvalidStateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,9 +50,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
+    private final BookingTimeline bookingTimeline;
+    private final EntityManager entityManager;
+    private final OutboxEventPublisher outboxEventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional
@@ -44,13 +72,71 @@ public class BookingServiceImpl implements BookingService {
         if (!item.getAvailable()) {
             throw new BadRequestException("Item ID=" + item.getId() + "not available now for booking");
         }
+        if (bookingTimeline.overlaps(item.getId(), dto.getStart(), dto.getEnd())) {
+            throw new ConflictException("Item ID=" + item.getId() + " is already booked for these dates");
+        }
         Booking newBooking = BookingMapper.toBooking(dto, item, booker);
         Booking createBooking = bookingRepository.save(newBooking);
+        outboxEventPublisher.publish(EventType.BOOKING_CREATED, createBooking.getId());
         return BookingMapper.toBookingDto(createBooking);
     }
 
     @Override
     @Transactional
+    public List<BookingBatchResultDto> saveAll(Long userId, List<BookingIncomingDto> dtos) {
+        User booker = findUserById(userId);
+        Set<Long> itemIds = dtos.stream()
+                .map(BookingIncomingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[dtos.size()];
+        List<Booking> newBookings = new ArrayList<>();
+        List<Integer> newBookingIndexes = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingIncomingDto dto = dtos.get(i);
+            Item item = items.get(dto.getItemId());
+            if (item == null) {
+                results[i] = BookingBatchResultDto.failed(i, HttpStatus.NOT_FOUND,
+                        "Item with ID=" + dto.getItemId() + " not found");
+            } else if (userId.equals(item.getOwner().getId())) {
+                results[i] = BookingBatchResultDto.failed(i, HttpStatus.NOT_FOUND,
+                        "The owner of the Item cannot booking his Item");
+            } else if (!item.getAvailable()) {
+                results[i] = BookingBatchResultDto.failed(i, HttpStatus.BAD_REQUEST,
+                        "Item ID=" + item.getId() + "not available now for booking");
+            } else if (bookingTimeline.overlaps(item.getId(), dto.getStart(), dto.getEnd())) {
+                results[i] = BookingBatchResultDto.failed(i, HttpStatus.CONFLICT,
+                        "Item ID=" + item.getId() + " is already booked for these dates");
+            } else {
+                newBookings.add(BookingMapper.toBooking(dto, item, booker));
+                newBookingIndexes.add(i);
+            }
+        }
+
+        List<Booking> created = bookingRepository.saveAll(newBookings);
+        outboxEventPublisher.publishAll(EventType.BOOKING_CREATED, created
+                .stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()));
+        for (int i = 0; i < created.size(); i++) {
+            int index = newBookingIndexes.get(i);
+            results[index] = BookingBatchResultDto.created(index, BookingMapper.toBookingDto(created.get(i)));
+        }
+        log.info("Batch of {} bookings saved for user id={}, created={}", dtos.size(), userId, created.size());
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
+    @Retryable(value = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${shareit.booking.approve-retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${shareit.booking.approve-retry.delay-ms}",
+                    maxDelayExpression = "${shareit.booking.approve-retry.max-delay-ms}",
+                    multiplier = 2, random = true))
     public BookingDto approve(Long userId, Long bookingId, Boolean approved) {
         findUserById(userId);
         Booking booking = bookingRepository.get(bookingId);
@@ -61,9 +147,18 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Booking id=" + bookingId + " is already approved");
         }
         if (approved) {
+            entityManager.lock(booking.getItem(), LockModeType.OPTIMISTIC_FORCE_INCREMENT);
             booking.setStatus(Status.APPROVED);
+            bookingTimeline.add(booking);
+            try {
+                bookingRepository.saveAndFlush(booking);
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Item ID=" + booking.getItem().getId() + " is already booked for these dates");
+            }
+            outboxEventPublisher.publish(EventType.BOOKING_APPROVED, booking.getId());
         } else {
             booking.setStatus(Status.REJECTED);
+            outboxEventPublisher.publish(EventType.BOOKING_REJECTED, booking.getId());
         }
         return BookingMapper.toBookingDto(booking);
     }
@@ -72,18 +167,29 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto findById(Long userId, Long bookingId) {
         User user = findUserById(userId);
         Booking booking = bookingRepository.get(bookingId);
-        if (!booking.getBooker().equals(user) && !booking.getItem().getOwner().equals(user)) {
+        if (!booking.getBooker().getId().equals(user.getId())
+                && !booking.getItem().getOwner().getId().equals(user.getId())) {
             throw new NotFoundException("It's not possible to get booking id=" + bookingId + " for user id=" + userId);
         }
         return BookingMapper.toBookingDto(booking);
     }
 
+    @Override
+    public String getETag(Long userId, Long bookingId) {
+        BookingRepository.VersionView version = bookingRepository.findVersionById(bookingId)
+                .filter(v -> v.getBookerId().equals(userId) || v.getOwnerId().equals(userId))
+                .orElseThrow(() -> new NotFoundException("It's not possible to get booking id=" + bookingId
+                        + " for user id=" + userId));
+        return "b" + bookingId + "-" + version.getVersion() + "-" + version.getItemVersion()
+                + "-" + version.getBookerVersion();
+    }
+
     @Override
     public List<BookingDto> findAllForBooker(Long userId, String state, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size, BookingRepository.SORT_BY_DESC);
         findUserById(userId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> result;
+        List<BookingDto> result;
         switch (state) {
             case "ALL":
                 result = bookingRepository.findAllByBookerId(userId, pageable);
@@ -106,10 +212,7 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new InvalidStateException("Unknown state: " + state);
         }
-        return result
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return result;
     }
 
     @Override
@@ -120,7 +223,7 @@ public class BookingServiceImpl implements BookingService {
             return Collections.emptyList();
         }
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> result;
+        List<BookingDto> result;
         switch (state) {
             case "ALL":
                 result = bookingRepository.findAllByOwner(userId, pageable);
@@ -143,14 +246,112 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new InvalidStateException("Unknown state: " + state);
         }
-        return result
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return result;
+    }
+
+    @Override
+    public List<BookingDto> findAllForBookerAfter(Long userId, String state, BookingCursor after, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        findUserById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = after.getStart();
+        Long id = after.getId();
+        List<BookingDto> result;
+        switch (state) {
+            case "ALL":
+                result = bookingRepository.findAllByBookerIdAfter(userId, start, id, pageable);
+                break;
+            case "WAITING":
+                result = bookingRepository.findAllByBookerIdAndStatusAfter(userId, Status.WAITING, start, id, pageable);
+                break;
+            case "REJECTED":
+                result = bookingRepository.findAllByBookerIdAndStatusAfter(userId, Status.REJECTED, start, id, pageable);
+                break;
+            case "CURRENT":
+                result = bookingRepository.findAllByBookerCurrentAfter(userId, now, start, id, pageable);
+                break;
+            case "PAST":
+                result = bookingRepository.findAllPastForBookerAfter(userId, now, start, id, pageable);
+                break;
+            case "FUTURE":
+                result = bookingRepository.findAllFutureForBookerAfter(userId, now, start, id, pageable);
+                break;
+            default:
+                throw new InvalidStateException("Unknown state: " + state);
+        }
+        return result;
+    }
+
+    @Override
+    public List<BookingDto> findAllForOwnerAfter(Long userId, String state, BookingCursor after, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        findUserById(userId);
+        if (itemRepository.findFirstByOwnerId(userId).isEmpty()) {
+            return Collections.emptyList();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = after.getStart();
+        Long id = after.getId();
+        List<BookingDto> result;
+        switch (state) {
+            case "ALL":
+                result = bookingRepository.findAllByOwnerAfter(userId, start, id, pageable);
+                break;
+            case "WAITING":
+                result = bookingRepository.findAllByOwnerAndStatusAfter(userId, Status.WAITING, start, id, pageable);
+                break;
+            case "REJECTED":
+                result = bookingRepository.findAllByOwnerAndStatusAfter(userId, Status.REJECTED, start, id, pageable);
+                break;
+            case "CURRENT":
+                result = bookingRepository.findAllByOwnerCurrentAfter(userId, now, start, id, pageable);
+                break;
+            case "PAST":
+                result = bookingRepository.findAllPastForOwnerAfter(userId, now, start, id, pageable);
+                break;
+            case "FUTURE":
+                result = bookingRepository.findAllFutureForOwnerAfter(userId, now, start, id, pageable);
+                break;
+            default:
+                throw new InvalidStateException("Unknown state: " + state);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamAllForOwner(Long userId, String state, Consumer<? super BookingDto> consumer) {
+        stream(() -> findAllForOwner(userId, state, 0, STREAM_BATCH_SIZE),
+                after -> findAllForOwnerAfter(userId, state, after, STREAM_BATCH_SIZE),
+                consumer);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamAllForBooker(Long userId, String state, Consumer<? super BookingDto> consumer) {
+        stream(() -> findAllForBooker(userId, state, 0, STREAM_BATCH_SIZE),
+                after -> findAllForBookerAfter(userId, state, after, STREAM_BATCH_SIZE),
+                consumer);
+    }
+
+    // Each page is read in its own transaction, so no connection is held while the client consumes it
+    private void stream(Supplier<List<BookingDto>> firstPage, Function<BookingCursor, List<BookingDto>> nextPage,
+                        Consumer<? super BookingDto> consumer) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<BookingDto> page = readOnly.execute(status -> firstPage.get());
+        while (true) {
+            page.forEach(consumer);
+            if (page.size() < STREAM_BATCH_SIZE) {
+                return;
+            }
+            BookingCursor after = BookingCursor.of(page.get(page.size() - 1));
+            page = readOnly.execute(status -> nextPage.apply(after));
+        }
     }
 
     private User findUserById(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> new NotFoundException("User with id=" + id + " not found"));
+        return userService.findById(id);
     }
 
     private Item findItemById(Long id) {
@@ -0,0 +1,224 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingBriefDto;
+import ru.practicum.shareit.booking.enumBooking.Status;
+import ru.practicum.shareit.event.BroadcastEventHandler;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+import ru.practicum.shareit.exception.ConflictException;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingTimeline implements BroadcastEventHandler {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Comparator<Entry> BY_START = Comparator.comparing(Entry::getStart)
+            .thenComparing(Entry::getId);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, NavigableSet<Entry>> approvedByItem = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Entry>> pendingByItem = new ConcurrentHashMap<>();
+    private final Map<BookerItem, LocalDateTime> earliestEndByBookerItem = new ConcurrentHashMap<>();
+    // Items whose approved rows already overlapped when they were loaded, e.g. written before the constraint existed
+    private final Set<Long> overlappingItems = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void rebuild() {
+        approvedByItem.clear();
+        earliestEndByBookerItem.clear();
+        overlappingItems.clear();
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Booking> page;
+        do {
+            page = bookingRepository.findAllByStatus(Status.APPROVED, pageable);
+            page.forEach(this::put);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        log.info("Booking timeline has been built, items={}", approvedByItem.size());
+        if (!overlappingItems.isEmpty()) {
+            log.warn("Approved bookings overlap for items {}", overlappingItems);
+        }
+    }
+
+    public void add(Booking booking) {
+        if (booking.getStatus() != Status.APPROVED) {
+            return;
+        }
+        Long itemId = booking.getItem().getId();
+        Entry entry = toEntry(booking);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (timeline(approvedByItem, itemId)) {
+                checkFree(itemId, entry);
+                put(booking);
+            }
+            return;
+        }
+        synchronized (timeline(approvedByItem, itemId)) {
+            checkFree(itemId, entry);
+            timeline(pendingByItem, itemId).add(entry);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(booking);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                timeline(pendingByItem, itemId).remove(entry);
+            }
+        });
+    }
+
+    @Override
+    public boolean supports(EventType type) {
+        return type == EventType.BOOKING_APPROVED;
+    }
+
+    // Brings in approvals committed by other instances; this instance's own were put after commit in add
+    @Override
+    public void handle(OutboxEvent event) {
+        bookingRepository.findById(event.getAggregateId())
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .ifPresent(this::put);
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return overlaps(approvedByItem.get(itemId), start, end, !overlappingItems.contains(itemId))
+                || overlaps(pendingByItem.get(itemId), start, end, true);
+    }
+
+    // A hit is final, since approved bookings stay approved. A miss may only mean this instance has not seen the
+    // approval yet, so it is settled by the database (bookings_booker_item_end_idx).
+    public boolean hasCompleted(Long bookerId, Long itemId, LocalDateTime now) {
+        LocalDateTime earliestEnd = earliestEndByBookerItem.get(new BookerItem(bookerId, itemId));
+        if (earliestEnd != null && earliestEnd.isBefore(now)) {
+            return true;
+        }
+        return bookingRepository.existsByBookerIdAndItemIdAndEndBeforeAndStatus(bookerId, itemId, now,
+                Status.APPROVED);
+    }
+
+    public BookingBriefDto findLast(Long itemId, LocalDateTime now) {
+        NavigableSet<Entry> timeline = approvedByItem.get(itemId);
+        return timeline == null ? null : toBrief(timeline.floor(probe(now)));
+    }
+
+    // The owner's item list shows the booking that ended last, not the one that started last
+    public BookingBriefDto findLastEnded(Long itemId, LocalDateTime now) {
+        NavigableSet<Entry> timeline = approvedByItem.get(itemId);
+        if (timeline == null) {
+            return null;
+        }
+        boolean disjoint = !overlappingItems.contains(itemId);
+        Entry last = null;
+        for (Entry entry : timeline.headSet(probe(now), true).descendingSet()) {
+            if (entry.getEnd().isBefore(now) && (last == null || entry.getEnd().isAfter(last.getEnd()))) {
+                last = entry;
+                if (disjoint) {
+                    break;
+                }
+            }
+        }
+        return toBrief(last);
+    }
+
+    public BookingBriefDto findNext(Long itemId, LocalDateTime now) {
+        NavigableSet<Entry> timeline = approvedByItem.get(itemId);
+        return timeline == null ? null : toBrief(timeline.higher(probe(now)));
+    }
+
+    private void put(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Entry entry = toEntry(booking);
+        NavigableSet<Entry> timeline = timeline(approvedByItem, itemId);
+        synchronized (timeline) {
+            if (!timeline.contains(entry) && overlaps(timeline, entry.getStart(), entry.getEnd(), false)) {
+                overlappingItems.add(itemId);
+            }
+            timeline.add(entry);
+        }
+        earliestEndByBookerItem.merge(new BookerItem(booking.getBooker().getId(), itemId), booking.getEnd(),
+                (current, end) -> end.isBefore(current) ? end : current);
+    }
+
+    private void checkFree(Long itemId, Entry entry) {
+        if (overlaps(itemId, entry.getStart(), entry.getEnd())) {
+            throw new ConflictException("Item ID=" + itemId + " is already booked from " + entry.getStart()
+                    + " to " + entry.getEnd());
+        }
+    }
+
+    private static NavigableSet<Entry> timeline(Map<Long, NavigableSet<Entry>> byItem, Long itemId) {
+        return byItem.computeIfAbsent(itemId, id -> new ConcurrentSkipListSet<>(BY_START));
+    }
+
+    // Walks back from the latest booking that starts before end. While the timeline is disjoint its ends grow with
+    // its starts, so the first booking that ends by start settles it; otherwise every earlier one has to be checked.
+    private static boolean overlaps(NavigableSet<Entry> timeline, LocalDateTime start, LocalDateTime end,
+                                    boolean disjoint) {
+        if (timeline == null) {
+            return false;
+        }
+        for (Entry entry : timeline.headSet(new Entry(Long.MIN_VALUE, null, end, end), false).descendingSet()) {
+            if (entry.getEnd().isAfter(start)) {
+                return true;
+            }
+            if (disjoint) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static Entry toEntry(Booking booking) {
+        return new Entry(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+    }
+
+    private static Entry probe(LocalDateTime now) {
+        return new Entry(Long.MAX_VALUE, null, now, now);
+    }
+
+    private static BookingBriefDto toBrief(Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+        BookingBriefDto brief = new BookingBriefDto();
+        brief.setId(entry.getId());
+        brief.setBookerId(entry.getBookerId());
+        return brief;
+    }
+
+    @Value
+    static class BookerItem {
+        Long bookerId;
+        Long itemId;
+    }
+
+    @Value
+    static class Entry {
+        Long id;
+        Long bookerId;
+        LocalDateTime start;
+        LocalDateTime end;
+    }
+}
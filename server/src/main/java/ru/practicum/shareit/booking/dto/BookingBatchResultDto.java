@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+
+@Value
+@Builder
+public class BookingBatchResultDto {
+    int index;
+    int status;
+    BookingDto booking;
+    String error;
+
+    public static BookingBatchResultDto created(int index, BookingDto booking) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(HttpStatus.CREATED.value())
+                .booking(booking)
+                .build();
+    }
+
+    public static BookingBatchResultDto failed(int index, HttpStatus status, String error) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Value;
 import ru.practicum.shareit.booking.enumBooking.Status;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Value
 @Builder
+@AllArgsConstructor
 public class BookingDto {
     Long id;
     LocalDateTime start;
@@ -18,4 +20,13 @@ public class BookingDto {
     ItemDto item;
     UserDto booker;
     Status status;
-}
\ No newline at end of file
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId,
+                      Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end,
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail),
+                status);
+    }
+}
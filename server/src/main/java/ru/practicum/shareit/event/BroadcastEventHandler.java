@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event;
+
+// Runs on every instance to refresh its own in-memory state. An instance may see the same event twice, so handlers
+// reload the aggregate instead of applying a delta.
+public interface BroadcastEventHandler {
+    boolean supports(EventType type);
+
+    void handle(OutboxEvent event);
+}
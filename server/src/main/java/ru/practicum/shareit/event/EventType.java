@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event;
+
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    COMMENT_CREATED,
+    ITEM_CREATED,
+    ITEM_UPDATED,
+    USER_UPDATED,
+    USER_DELETED
+}
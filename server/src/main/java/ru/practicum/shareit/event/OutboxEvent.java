@@ -0,0 +1,33 @@
+package ru.practicum.shareit.event;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private EventType type;
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+    @Column
+    private LocalDateTime created;
+    @Column
+    private int attempts;
+    @Column
+    private String handler;
+    @Column
+    private boolean broadcast;
+}
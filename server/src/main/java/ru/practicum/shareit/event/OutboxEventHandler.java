@@ -0,0 +1,10 @@
+package ru.practicum.shareit.event;
+
+public interface OutboxEventHandler {
+    // Stored with every event row written for this handler, so it has to stay stable across releases
+    String name();
+
+    boolean supports(EventType type);
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxEventPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay outboxRelay;
+
+    public void publish(EventType type, Long aggregateId) {
+        publishAll(type, List.of(aggregateId));
+    }
+
+    public void publishAll(EventType type, Collection<Long> aggregateIds) {
+        List<String> subscribers = outboxRelay.subscribers(type);
+        boolean broadcast = outboxRelay.broadcasts(type);
+        if (aggregateIds.isEmpty() || subscribers.isEmpty() && !broadcast) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.saveAll(aggregateIds
+                .stream()
+                .flatMap(id -> Stream.concat(
+                        subscribers.stream().map(handler -> event(type, id, now).handler(handler).build()),
+                        broadcast ? Stream.of(event(type, id, now).broadcast(true).build()) : Stream.empty()))
+                .collect(Collectors.toList()));
+        afterCommit(() -> events.forEach(outboxRelay::submit));
+    }
+
+    private static OutboxEvent.OutboxEventBuilder event(EventType type, Long aggregateId, LocalDateTime created) {
+        return OutboxEvent.builder().type(type).aggregateId(aggregateId).created(created);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
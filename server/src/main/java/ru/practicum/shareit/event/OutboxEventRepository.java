@@ -0,0 +1,34 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    @Query("select e from OutboxEvent e where e.broadcast = false and e.created < ?1 and e.attempts < ?2" +
+            " order by e.created, e.id")
+    List<OutboxEvent> findPending(LocalDateTime createdBefore, int maxAttempts, Pageable pageable);
+
+    @Query("select e from OutboxEvent e where e.broadcast = true and e.created >= ?1 order by e.created, e.id")
+    List<OutboxEvent> findBroadcasts(LocalDateTime createdFrom);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.broadcast = true and e.created < ?1")
+    int deleteBroadcasts(LocalDateTime createdBefore);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id = ?1")
+    int claim(Long id);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1 where e.id = ?1")
+    void incrementAttempts(Long id);
+
+    @Query("select e.attempts from OutboxEvent e where e.id = ?1")
+    Optional<Integer> findAttemptsById(Long id);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.event;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.events")
+public class OutboxProperties {
+    private int workers = 2;
+    private int queueCapacity = 10_000;
+    private Duration sweepInterval = Duration.ofSeconds(5);
+    private int sweepBatchSize = 100;
+    private int maxAttempts = 5;
+    private Duration broadcastInterval = Duration.ofSeconds(1);
+    // Has to cover the longest request transaction plus clock skew between instances, or a late commit is missed
+    private Duration broadcastLookback = Duration.ofSeconds(30);
+    private Duration broadcastRetention = Duration.ofMinutes(10);
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class OutboxRelay {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final List<BroadcastEventHandler> broadcastHandlers;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workers;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter broadcastFailed;
+    // Broadcast events this instance has already applied, kept for as long as polling can return them
+    private final Map<Long, LocalDateTime> broadcastsApplied = new ConcurrentHashMap<>();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxEventHandler> handlers,
+                       List<BroadcastEventHandler> broadcastHandlers, PlatformTransactionManager transactionManager,
+                       OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.broadcastHandlers = broadcastHandlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("outbox-"), new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("shareit.events.queue", workers, executor -> executor.getQueue().size())
+                .description("Committed events waiting for a relay worker")
+                .register(meterRegistry);
+        rejected = Counter.builder("shareit.events.rejected")
+                .description("Events left to the sweeper because the relay queue was full")
+                .register(meterRegistry);
+        failed = Counter.builder("shareit.events.failed")
+                .description("Event deliveries that threw and will be retried by the sweeper")
+                .register(meterRegistry);
+        broadcastFailed = Counter.builder("shareit.events.broadcast.failed")
+                .description("Broadcast events that threw on this instance and will be retried by polling")
+                .register(meterRegistry);
+    }
+
+    public List<String> subscribers(EventType type) {
+        return handlers.stream()
+                .filter(handler -> handler.supports(type))
+                .map(OutboxEventHandler::name)
+                .collect(Collectors.toList());
+    }
+
+    public boolean broadcasts(EventType type) {
+        return broadcastHandlers.stream().anyMatch(handler -> handler.supports(type));
+    }
+
+    public void submit(OutboxEvent event) {
+        try {
+            workers.execute(() -> {
+                if (event.isBroadcast()) {
+                    apply(event);
+                } else {
+                    process(event);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.debug("Relay queue is full, event id={} is left to the sweeper and broadcast polling", event.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.events.sweep-interval}",
+            initialDelayString = "${shareit.events.sweep-interval}")
+    public void sweep() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(properties.getSweepInterval());
+        List<OutboxEvent> pending = outboxEventRepository.findPending(createdBefore, properties.getMaxAttempts(),
+                PageRequest.of(0, properties.getSweepBatchSize()));
+        if (!pending.isEmpty()) {
+            log.info("Sweeping {} outbox events created before {}", pending.size(), createdBefore);
+        }
+        pending.forEach(this::process);
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteBroadcasts(
+                LocalDateTime.now().minus(properties.getBroadcastRetention())));
+    }
+
+    // Picks up broadcast events committed by other instances; the ones published here were applied on submit
+    @Scheduled(fixedDelayString = "${shareit.events.broadcast-interval}")
+    public void pollBroadcasts() {
+        LocalDateTime createdFrom = LocalDateTime.now().minus(properties.getBroadcastLookback());
+        outboxEventRepository.findBroadcasts(createdFrom).forEach(this::apply);
+        broadcastsApplied.values().removeIf(created -> created.isBefore(createdFrom));
+    }
+
+    void apply(OutboxEvent event) {
+        if (broadcastsApplied.putIfAbsent(event.getId(), event.getCreated()) != null) {
+            return;
+        }
+        try {
+            broadcastHandlers.stream()
+                    .filter(handler -> handler.supports(event.getType()))
+                    .forEach(handler -> handler.handle(event));
+        } catch (RuntimeException e) {
+            broadcastsApplied.remove(event.getId());
+            broadcastFailed.increment();
+            log.warn("Broadcast event id={} type={} failed on this instance, polling retries it for {}",
+                    event.getId(), event.getType(), properties.getBroadcastLookback(), e);
+        }
+    }
+
+    void process(OutboxEvent event) {
+        try {
+            Boolean delivered = transactionTemplate.execute(status -> {
+                if (outboxEventRepository.claim(event.getId()) == 0) {
+                    return false;
+                }
+                handlersFor(event).forEach(handler -> handler.handle(event));
+                return true;
+            });
+            if (Boolean.TRUE.equals(delivered)) {
+                Timer.builder("shareit.events.lag")
+                        .description("Time from event creation to delivery by the relay")
+                        .tag("type", event.getType().name())
+                        .register(meterRegistry)
+                        .record(Duration.between(event.getCreated(), LocalDateTime.now()));
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            // The sweeper may have picked up the same row, so the stored count decides, not the copy in hand
+            int attempts = transactionTemplate.execute(status -> {
+                outboxEventRepository.incrementAttempts(event.getId());
+                return outboxEventRepository.findAttemptsById(event.getId()).orElse(0);
+            });
+            log.warn("Delivery of event id={} type={} to {} failed, attempt {}", event.getId(), event.getType(),
+                    event.getHandler(), attempts, e);
+            if (attempts >= properties.getMaxAttempts()) {
+                Counter.builder("shareit.events.dead")
+                        .description("Events that reached max attempts and are no longer retried")
+                        .tag("type", event.getType().name())
+                        .register(meterRegistry)
+                        .increment();
+                log.error("Event id={} type={} aggregateId={} for {} reached {} attempts and will not be retried",
+                        event.getId(), event.getType(), event.getAggregateId(), event.getHandler(), attempts);
+            }
+        }
+    }
+
+    private List<OutboxEventHandler> handlersFor(OutboxEvent event) {
+        List<OutboxEventHandler> matching = handlers.stream()
+                .filter(handler -> event.getHandler() == null
+                        ? handler.supports(event.getType())
+                        : handler.name().equals(event.getHandler()))
+                .collect(Collectors.toList());
+        if (matching.isEmpty()) {
+            log.warn("No handler {} for event id={} type={}, dropping it", event.getHandler(), event.getId(),
+                    event.getType());
+        }
+        return matching;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Relay workers did not finish in {}s, remaining events are left to the sweeper",
+                    SHUTDOWN_TIMEOUT_SECONDS);
+            workers.shutdownNow();
+        }
+    }
+}
@@ -18,7 +18,8 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
     @Column
     private String name;
@@ -26,7 +27,7 @@ public class Item {
     private String description;
     @Column(name = "is_available")
     private Boolean available;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
     @Column(name = "request_id")
@@ -37,6 +38,8 @@ public class Item {
     private Booking nextBooking;
     @Transient
     private List<Comment> comments;
+    @Version
+    private Long version;
 
     public Item(String name, String description, Boolean available) {
         this.name = name;
@@ -3,11 +3,15 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.ndjson.NdjsonWriter;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentIncomingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -16,6 +20,7 @@ import java.util.List;
 @RequestMapping(path = "/items")
 public class ItemController {
     private final ItemService itemService;
+    private final NdjsonWriter ndjsonWriter;
 
     @GetMapping
     public List<ItemDto> getAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -26,6 +31,13 @@ public class ItemController {
         return usersItem;
     }
 
+    @GetMapping("/stream")
+    public void streamAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                  HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, consumer -> itemService.streamByUserId(userId, consumer));
+        log.info("The user's items have been streamed for UserID={}", userId);
+    }
+
     @PostMapping
     public ItemDto save(@RequestHeader("X-Sharer-User-Id") Long userId,
                         @RequestBody ItemInDto item) {
@@ -43,7 +55,12 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("itemId") Long itemId) {
+    public ItemDto findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("itemId") Long itemId,
+                            WebRequest request) {
+        if (request.checkNotModified(itemService.getETag(userId, itemId))) {
+            log.info("The item was not modified, ItemID={}", itemId);
+            return null;
+        }
         ItemDto item = itemService.findById(userId, itemId);
         log.info("The item was found, ItemID={}", item.getId());
         return item;
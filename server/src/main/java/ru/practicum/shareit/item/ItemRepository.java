@@ -2,25 +2,74 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT i FROM Item i" +
-            " WHERE (" +
-            " UPPER(i.name) LIKE UPPER(CONCAT('%',?1,'%'))" +
-            " OR UPPER(i.description) LIKE UPPER(CONCAT('%',?1,'%')))" +
-            " AND i.available=true")
-    List<Item> findByString(String text, Pageable pageable);
+    String ITEM_DTO = "select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available," +
+            " i.requestId) from Item i ";
+
+    @Query(value = "SELECT i.* FROM items i, to_tsquery('simple', ?1) q" +
+            " WHERE i.is_available = true AND i.search_vector @@ q" +
+            " ORDER BY ts_rank(i.search_vector, q) DESC, i.id", nativeQuery = true)
+    List<Item> searchFullText(String tsQuery, Pageable pageable);
 
     Optional<Item> findFirstByOwnerId(Long ownerId);
 
-    List<Item> findAllByOwnerIdOrderById(Long id, Pageable pageable);
+    @Query(ITEM_DTO + "where i.owner.id = ?1 order by i.id")
+    List<ItemDto> findAllByOwnerIdOrderById(Long id, Pageable pageable);
+
+    @Query(ITEM_DTO + "where i.owner.id = ?1 and i.id > ?2 order by i.id")
+    List<ItemDto> findAllByOwnerIdAfter(Long id, Long afterId, Pageable pageable);
+
+    @Query(ITEM_DTO + "where i.id in ?1")
+    List<ItemDto> findAllDtosById(Collection<Long> ids);
+
+    List<RequestItemView> findAllByRequestIdOrderById(Long requestId);
+
+    @Query(value = "SELECT id, name, description, available, requestId FROM (" +
+            " SELECT i.id AS id, i.name AS name, i.description AS description, i.is_available AS available," +
+            " i.request_id AS requestId," +
+            " ROW_NUMBER() OVER (PARTITION BY i.request_id ORDER BY i.id) AS item_rank" +
+            " FROM items i WHERE i.request_id IN (?1)) ranked" +
+            " WHERE item_rank <= ?2" +
+            " ORDER BY requestId, id", nativeQuery = true)
+    List<RequestItemView> findAllByRequestIdIn(Collection<Long> requestIds, int maxPerRequest);
+
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 where i.id = ?1")
+    void incrementVersion(Long id);
+
+    @Query("select i.version as version, i.owner.id as ownerId, count(c.id) as comments," +
+            " coalesce(sum(u.version), 0) as authorsVersion" +
+            " from Item i left join Comment c on c.item.id = i.id left join c.author u" +
+            " where i.id = ?1 group by i.id, i.version, i.owner.id")
+    Optional<VersionView> findVersionById(Long id);
+
+    interface RequestItemView {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        Boolean getAvailable();
+
+        Long getRequestId();
+    }
+
+    interface VersionView {
+        Long getVersion();
+
+        Long getOwnerId();
 
-    List<Item> findAllByRequestId(Long requestId);
+        Long getComments();
 
-    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+        Long getAuthorsVersion();
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto save(Long id, ItemInDto item);
@@ -14,8 +15,12 @@ public interface ItemService {
 
     ItemDto findById(Long userId, Long itemId);
 
+    String getETag(Long userId, Long itemId);
+
     List<ItemDto> findByUserId(Long userId, int from, int size);
 
+    void streamByUserId(Long userId, Consumer<? super ItemDto> consumer);
+
     List<ItemDto> findByString(String s, int from, int size);
 
     CommentDto createComment(Long userId, Long itemId, CommentIncomingDto commentIncomingDto);
@@ -4,10 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.enumBooking.Status;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.dto.BookingBriefDto;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEventPublisher;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
@@ -20,26 +24,32 @@ import ru.practicum.shareit.item.comment.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int STREAM_BATCH_SIZE = 100;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final BookingTimeline bookingTimeline;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final OutboxEventPublisher outboxEventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional
@@ -56,6 +66,7 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException("Request with id=" + itemDto.getRequestId() + " not found"));
         }
         Item newItem = itemRepository.save(item);
+        outboxEventPublisher.publish(EventType.ITEM_CREATED, newItem.getId());
         return ItemMapper.toItemDto(newItem);
     }
 
@@ -68,6 +79,7 @@ public class ItemServiceImpl implements ItemService {
             throw new ForbiddenException("User with ID=" + userId + " not owner for item with ID=" + itemId);
         }
         item = checkUpdate(itemId, ItemMapper.toItem(itemDto));
+        outboxEventPublisher.publish(EventType.ITEM_UPDATED, itemId);
         return ItemMapper.toItemDto(item);
     }
 
@@ -78,59 +90,77 @@ public class ItemServiceImpl implements ItemService {
             LocalDateTime now = LocalDateTime.now();
             return ItemMapper.toItemDto(
                     item,
-                    bookingRepository.getLastForItem(itemId, now, Status.APPROVED),
-                    bookingRepository.getNextForItem(itemId, now, Status.APPROVED),
+                    bookingTimeline.findLast(itemId, now),
+                    bookingTimeline.findNext(itemId, now),
                     commentRepository.findAllByItemIdOrderByCreatedDesc(itemId));
         }
         return ItemMapper.toItemDto(item, commentRepository.findAllByItemIdOrderByCreatedDesc(itemId));
     }
 
+    @Override
+    public String getETag(Long userId, Long itemId) {
+        ItemRepository.VersionView version = itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item with ID=" + itemId + " not found"));
+        String etag = "i" + itemId + "-" + version.getVersion() + "-" + version.getComments()
+                + "-" + version.getAuthorsVersion();
+        if (version.getOwnerId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            etag += "-" + bookingId(bookingTimeline.findLast(itemId, now))
+                    + "-" + bookingId(bookingTimeline.findNext(itemId, now));
+        }
+        return etag;
+    }
+
 
     @Override
     public List<ItemDto> findByString(String s, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        return itemRepository.findByString(s, pageable).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        return itemSearchEngine.search(s, pageable);
     }
 
     @Override
     public List<ItemDto> findByUserId(Long id, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
         findUserById(id);
-        List<Item> items = itemRepository.findAllByOwnerIdOrderById(id, pageable);
-        List<Long> itemIds = items
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-
-        Map<Long, List<Comment>> commentsByItems = commentRepository.findAllByItemIdInOrderByCreatedDesc(itemIds)
-                .stream()
-                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-
-        Map<Long, List<Booking>> bookingsByItems = bookingRepository.getAllByItemIdInAndStatus(itemIds, Status.APPROVED)
-                .stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        return toItemDtosWithBookings(itemRepository.findAllByOwnerIdOrderById(id, pageable), LocalDateTime.now());
+    }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamByUserId(Long userId, Consumer<? super ItemDto> consumer) {
+        findUserById(userId);
         LocalDateTime now = LocalDateTime.now();
-        return items
-                .stream()
-                .map(item -> ItemMapper.toItemDto(
-                        item,
-                        findLastBooking(bookingsByItems.get(item.getId()), now),
-                        findNextBooking(bookingsByItems.get(item.getId()), now),
-                        commentsByItems.get(item.getId())))
-                .collect(Collectors.toList());
-
+        Pageable pageable = PageRequest.of(0, STREAM_BATCH_SIZE);
+        // Each page is read in its own transaction, so no connection is held while the client consumes it
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<ItemDto> page = readOnly.execute(status ->
+                toItemDtosWithBookings(itemRepository.findAllByOwnerIdOrderById(userId, pageable), now));
+        while (true) {
+            page.forEach(consumer);
+            if (page.size() < STREAM_BATCH_SIZE) {
+                return;
+            }
+            Long afterId = page.get(page.size() - 1).getId();
+            page = readOnly.execute(status ->
+                    toItemDtosWithBookings(itemRepository.findAllByOwnerIdAfter(userId, afterId, pageable), now));
+        }
     }
 
     @Override
     @Transactional
     public CommentDto createComment(Long userId, Long itemId, CommentIncomingDto commentIncomingDto) {
         User author = findUserById(userId);
-        Item item = findItemById(itemId);
-        if (!isAuthorUsedItem(userId, itemId)) {
+        if (!bookingTimeline.hasCompleted(userId, itemId, LocalDateTime.now())) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new NotFoundException("Item with ID=" + itemId + " not found");
+            }
             throw new BadRequestException("Comments from users who have not rented a thing are prohibited");
         }
+        Item item = itemRepository.getReferenceById(itemId);
         Comment newComment = commentRepository.save(CommentMapper.toComment(commentIncomingDto, author, item));
+        itemRepository.incrementVersion(itemId);
+        outboxEventPublisher.publish(EventType.COMMENT_CREATED, newComment.getId());
         return CommentMapper.toCommentDto(newComment);
     }
 
@@ -148,35 +178,32 @@ public class ItemServiceImpl implements ItemService {
         return findItem;
     }
 
-    private boolean isAuthorUsedItem(Long userId, Long itemId) {
-        Integer count = bookingRepository.countCompletedBooking(userId, itemId, LocalDateTime.now());
-        return (count != null) && (count > 0);
-    }
+    private List<ItemDto> toItemDtosWithBookings(List<ItemDto> items, LocalDateTime now) {
+        List<Long> itemIds = items
+                .stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
 
-    private Booking findLastBooking(List<Booking> bookings, LocalDateTime now) {
-        if (bookings == null) {
-            return null;
-        }
-        return bookings
+        Map<Long, List<Comment>> commentsByItems = commentRepository.findAllByItemIdInOrderByCreatedDesc(itemIds)
                 .stream()
-                .filter(b -> b.getEnd().isBefore(now))
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
-    }
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
 
-    private Booking findNextBooking(List<Booking> bookings, LocalDateTime now) {
-        if (bookings == null) {
-            return null;
-        }
-        return bookings
+        return items
                 .stream()
-                .filter(b -> b.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
+                .map(item -> ItemMapper.withBookings(
+                        item,
+                        bookingTimeline.findLastEnded(item.getId(), now),
+                        bookingTimeline.findNext(item.getId(), now),
+                        commentsByItems.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private static Long bookingId(BookingBriefDto booking) {
+        return booking == null ? null : booking.getId();
     }
 
     private User findUserById(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> new NotFoundException("User with id=" + id + " not found"));
+        return userService.findById(id);
     }
 
     private Item findItemById(Long id) {
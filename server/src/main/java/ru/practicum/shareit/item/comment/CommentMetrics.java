@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.comment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+import ru.practicum.shareit.event.OutboxEventHandler;
+
+@Component
+public class CommentMetrics implements OutboxEventHandler {
+    private final Counter created;
+
+    public CommentMetrics(MeterRegistry meterRegistry) {
+        created = Counter.builder("shareit.comments")
+                .description("Committed comments")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "comment-metrics";
+    }
+
+    @Override
+    public boolean supports(EventType type) {
+        return type == EventType.COMMENT_CREATED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        if (event.getType() == EventType.COMMENT_CREATED) {
+            created.increment();
+        }
+    }
+}
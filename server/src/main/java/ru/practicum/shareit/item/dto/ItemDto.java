@@ -20,4 +20,12 @@ public class ItemDto {
     private BookingBriefDto lastBooking;
     private BookingBriefDto nextBooking;
     private List<CommentDto> comments;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+    }
 }
\ No newline at end of file
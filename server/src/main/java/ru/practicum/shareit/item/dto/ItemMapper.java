@@ -1,9 +1,9 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingBriefDto;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.dto.CommentMapper;
 import ru.practicum.shareit.user.User;
@@ -25,8 +25,34 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemRepository.RequestItemView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
     public static ItemDto toItemDto(Item item, List<Comment> comments) {
-        ItemDto itemDto = toItemDto(item);
+        return withComments(toItemDto(item), comments);
+    }
+
+    public static ItemDto toItemDto(Item item, BookingBriefDto lastBooking, BookingBriefDto nextBooking,
+                                    List<Comment> comments) {
+        return withBookings(toItemDto(item), lastBooking, nextBooking, comments);
+    }
+
+    public static ItemDto withBookings(ItemDto itemDto, BookingBriefDto lastBooking, BookingBriefDto nextBooking,
+                                       List<Comment> comments) {
+        withComments(itemDto, comments);
+        itemDto.setLastBooking(lastBooking);
+        itemDto.setNextBooking(nextBooking);
+        return itemDto;
+    }
+
+    private static ItemDto withComments(ItemDto itemDto, List<Comment> comments) {
         if (comments != null) {
             itemDto.setComments(comments
                     .stream()
@@ -36,18 +62,6 @@ public class ItemMapper {
         return itemDto;
     }
 
-    public static ItemDto toItemDto(Item item, Booking lastBooking, Booking nextBooking,
-                                    List<Comment> comments) {
-        ItemDto itemDto = toItemDto(item, comments);
-        if (lastBooking != null) {
-            itemDto.setLastBooking(bookingToBookingBriefDto(lastBooking));
-        }
-        if (nextBooking != null) {
-            itemDto.setNextBooking(bookingToBookingBriefDto(nextBooking));
-        }
-        return itemDto;
-    }
-
     public static Item toItem(ItemInDto itemDto) {
         return Item.builder()
                 .name(itemDto.getName())
@@ -67,12 +81,4 @@ public class ItemMapper {
                 .owner(user)
                 .build();
     }
-
-
-    private BookingBriefDto bookingToBookingBriefDto(Booking booking) {
-        BookingBriefDto mapped = new BookingBriefDto();
-        mapped.setId(booking.getId());
-        mapped.setBookerId(booking.getBooker().getId());
-        return mapped;
-    }
 }
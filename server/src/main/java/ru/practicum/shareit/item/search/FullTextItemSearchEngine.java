@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        List<String> terms = SearchTokenizer.queryTerms(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        // Tokens contain only letters and digits, so they are safe to splice into tsquery syntax
+        String tsQuery = terms
+                .stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return itemRepository.searchFullText(tsQuery, pageable)
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<ItemDto> search(String text, Pageable pageable);
+
+    default void index(Item item) {
+    }
+}
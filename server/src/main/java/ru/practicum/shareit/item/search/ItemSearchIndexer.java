@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.BroadcastEventHandler;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+import ru.practicum.shareit.item.ItemRepository;
+
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndexer implements BroadcastEventHandler {
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+
+    @Override
+    public boolean supports(EventType type) {
+        return type == EventType.ITEM_CREATED || type == EventType.ITEM_UPDATED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        itemRepository.findById(event.getAggregateId()).ifPresent(itemSearchEngine::index);
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+public class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int WORD_BOUNDARY_FACTOR = 2;
+
+    private final Map<Long, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public void put(long id, String name, String description, boolean available) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            if (!available) {
+                return;
+            }
+            Document document = new Document(normalize(name), normalize(description));
+            documents.put(id, document);
+            for (long trigram : document.trigrams()) {
+                postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, long offset, int limit) {
+        String needle = normalize(text);
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates;
+            if (needle.length() < GRAM_LENGTH) {
+                misses.increment();
+                candidates = documents.keySet();
+            } else {
+                hits.increment();
+                candidates = intersect(trigrams(needle));
+            }
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Long id : candidates) {
+                int score = documents.get(id).score(needle);
+                if (score > 0) {
+                    scores.put(id, score);
+                }
+            }
+            return scores.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (long trigram : document.trigrams()) {
+            Set<Long> ids = postings.get(trigram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private Collection<Long> intersect(Set<Long> trigrams) {
+        List<Set<Long>> lists = new ArrayList<>(trigrams.size());
+        for (long trigram : trigrams) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> smallest = lists.get(0);
+        List<Set<Long>> others = lists.subList(1, lists.size());
+        return smallest
+                .stream()
+                .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                .collect(Collectors.toList());
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // Every occurrence counts; one that starts a word counts double, and one that is a whole word counts double again
+    private static int occurrences(String text, String needle) {
+        int score = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + 1)) {
+            int factor = 1;
+            if (isWordBoundary(text, i - 1)) {
+                factor *= WORD_BOUNDARY_FACTOR;
+                if (isWordBoundary(text, i + needle.length())) {
+                    factor *= WORD_BOUNDARY_FACTOR;
+                }
+            }
+            score += factor;
+        }
+        return score;
+    }
+
+    private static boolean isWordBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static final class Document {
+        private final String name;
+        private final String description;
+
+        private Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private int score(String needle) {
+            return NAME_WEIGHT * occurrences(name, needle) + DESCRIPTION_WEIGHT * occurrences(description, needle);
+        }
+
+        private Set<Long> trigrams() {
+            Set<Long> trigrams = TrigramIndex.trigrams(name);
+            trigrams.addAll(TrigramIndex.trigrams(description));
+            return trigrams;
+        }
+    }
+}
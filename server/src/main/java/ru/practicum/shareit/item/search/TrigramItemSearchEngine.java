@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram", matchIfMissing = true)
+public class TrigramItemSearchEngine implements ItemSearchEngine, MeterBinder, SmartInitializingSingleton {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Item> page;
+        do {
+            page = itemRepository.findAll(pageable);
+            page.forEach(this::index);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        log.info("Item trigram index has been built, items={}, trigrams={}", index.size(), index.trigramCount());
+    }
+
+    @Override
+    public void index(Item item) {
+        index.put(item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<Long> ids = index.search(text, pageable.getOffset(), pageable.getPageSize());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemDto> items = itemRepository.findAllDtosById(ids)
+                .stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        return ids
+                .stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.search.index.items", index, TrigramIndex::size)
+                .tag("index", "trigram")
+                .description("Number of available items in the search index")
+                .register(registry);
+        Gauge.builder("shareit.search.index.terms", index, TrigramIndex::trigramCount)
+                .tag("index", "trigram")
+                .description("Number of distinct trigrams in the search index")
+                .register(registry);
+        FunctionCounter.builder("shareit.search.index.lookups", index, TrigramIndex::getHits)
+                .tags("index", "trigram", "result", "hit")
+                .description("Searches answered from trigram posting lists")
+                .register(registry);
+        FunctionCounter.builder("shareit.search.index.lookups", index, TrigramIndex::getMisses)
+                .tags("index", "trigram", "result", "miss")
+                .description("Searches too short for trigrams that fell back to a full index scan")
+                .register(registry);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.ndjson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+public class NdjsonWriter {
+    private static final int LINE_SEPARATOR = '\n';
+
+    private final ObjectMapper objectMapper;
+
+    public void write(HttpServletResponse response, Consumer<Consumer<Object>> producer) throws IOException {
+        OutputStream out = response.getOutputStream();
+        producer.accept(value -> {
+            try {
+                setContentType(response);
+                out.write(objectMapper.writeValueAsBytes(value));
+                out.write(LINE_SEPARATOR);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        setContentType(response);
+        out.flush();
+    }
+
+    private void setContentType(HttpServletResponse response) {
+        if (response.getContentType() == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+    }
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
     @Column(name = "description")
     private String description;
@@ -24,4 +25,6 @@ public class ItemRequest {
     private User requester;
     @Column(name = "date_created")
     private LocalDateTime created;
+    @Version
+    private Long version;
 }
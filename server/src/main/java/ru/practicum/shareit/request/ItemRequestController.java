@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 
@@ -37,7 +38,11 @@ public class ItemRequestController {
 
     @GetMapping("{requestId}")
     public ItemRequestDto findRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @PathVariable Long requestId) {
+                                          @PathVariable Long requestId,
+                                          WebRequest request) {
+        if (request.checkNotModified(requestService.getETag(userId, requestId))) {
+            return null;
+        }
         return requestService.get(userId, requestId);
     }
 
@@ -3,9 +3,11 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.exception.NotFoundException;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     default ItemRequest get(long id) {
@@ -16,4 +18,16 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     Page<ItemRequest> findAllByRequesterIdNot(long userId, Pageable pageable);
 
+    @Query("select r.version as version, count(i.id) as items, coalesce(sum(i.version), 0) as itemsVersion" +
+            " from ItemRequest r left join Item i on i.requestId = r.id" +
+            " where r.id = ?1 group by r.id, r.version")
+    Optional<VersionView> findVersionById(long id);
+
+    interface VersionView {
+        Long getVersion();
+
+        Long getItems();
+
+        Long getItemsVersion();
+    }
 }
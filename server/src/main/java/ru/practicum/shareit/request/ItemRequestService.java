@@ -14,4 +14,6 @@ public interface ItemRequestService {
 
     ItemRequestDto get(Long userId, Long requestId);
 
+    String getETag(Long userId, Long requestId);
+
 }
@@ -1,18 +1,18 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,7 +25,10 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
+
+    @Value("${shareit.requests.max-items-per-request:0}")
+    private int maxItemsPerRequest;
 
     @Transactional
     @Override
@@ -58,17 +61,30 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto get(Long userId, Long requestId) {
         findUserById(userId);
         ItemRequest itemRequest = itemRequestRepository.get(requestId);
-        return ItemRequestMapper.toDto(itemRequest, itemRepository.findAllByRequestId(requestId));
+        return ItemRequestMapper.toDto(itemRequest, itemRepository.findAllByRequestIdOrderById(requestId));
+    }
+
+    @Override
+    public String getETag(Long userId, Long requestId) {
+        findUserById(userId);
+        ItemRequestRepository.VersionView version = itemRequestRepository.findVersionById(requestId)
+                .orElseThrow(() -> new NotFoundException("ItemRequest with ID=" + requestId + " not found"));
+        return "r" + requestId + "-" + version.getVersion() + "-" + version.getItems() + "-" + version.getItemsVersion();
     }
 
     private List<ItemRequestDto> requestToDto(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
         List<Long> requestIds = requests
                 .stream()
                 .map(ItemRequest::getId)
                 .collect(Collectors.toList());
-        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds)
+        int maxPerRequest = maxItemsPerRequest > 0 ? maxItemsPerRequest : Integer.MAX_VALUE;
+        Map<Long, List<ItemRepository.RequestItemView>> itemsByRequest = itemRepository
+                .findAllByRequestIdIn(requestIds, maxPerRequest)
                 .stream()
-                .collect(Collectors.groupingBy(Item::getRequestId));
+                .collect(Collectors.groupingBy(ItemRepository.RequestItemView::getRequestId));
         return requests
                 .stream()
                 .map(request -> ItemRequestMapper.toDto(request, itemsByRequest.getOrDefault(request.getId(), List.of())))
@@ -76,7 +92,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private User findUserById(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> new NotFoundException("User with id=" + id + " not found"));
+        return userService.findById(id);
     }
 
 
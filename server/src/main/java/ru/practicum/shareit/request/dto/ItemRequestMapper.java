@@ -1,7 +1,7 @@
 package ru.practicum.shareit.request.dto;
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.request.ItemRequest;
 
@@ -20,7 +20,7 @@ public final class ItemRequestMapper {
         return mapped;
     }
 
-    public ItemRequestDto toDto(ItemRequest from, List<Item> items) {
+    public ItemRequestDto toDto(ItemRequest from, List<ItemRepository.RequestItemView> items) {
         ItemRequestDto mapped = toDto(from);
         mapped.setItems(items
                 .stream()
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+
+@Getter
+public class SqlStats {
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+    private long nanos;
+
+    public static SqlStats start() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void statementExecuted(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", rows=" + rows + ", time=" + String.format("%.3fms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class SqlStatsDataSource extends DelegatingDataSource {
+    public SqlStatsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private static Connection track(Connection connection) {
+        SqlStats stats = SqlStats.current();
+        return stats == null ? connection : proxy(Connection.class, connection, stats);
+    }
+
+    private static <T> T proxy(Class<T> type, T target, SqlStats stats) {
+        return type.cast(Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(), new Class<?>[]{type},
+                new Handler(target, stats)));
+    }
+
+    private static class Handler implements InvocationHandler {
+        private final Object target;
+        private final SqlStats stats;
+
+        Handler(Object target, SqlStats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            boolean execute = target instanceof Statement && method.getName().startsWith("execute");
+            long started = execute ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execute) {
+                    stats.statementExecuted(System.nanoTime() - started);
+                }
+            }
+            if (target instanceof ResultSet && Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                stats.rowFetched();
+            }
+            return wrap(method.getReturnType(), result);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object wrap(Class<?> returnType, Object result) {
+            if (result == null || !returnType.isInterface()) {
+                return result;
+            }
+            if (Statement.class.isAssignableFrom(returnType) || ResultSet.class.isAssignableFrom(returnType)) {
+                return proxy((Class<Object>) returnType, result, stats);
+            }
+            return result;
+        }
+    }
+}
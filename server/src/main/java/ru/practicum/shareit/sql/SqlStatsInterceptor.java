@@ -0,0 +1,54 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public class SqlStatsInterceptor implements HandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlStats.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlStats stats = SqlStats.current();
+        if (stats == null) {
+            return;
+        }
+        SqlStats.stop();
+        String handlerName = handlerName((HandlerMethod) handler);
+        DistributionSummary.builder("shareit.sql.statements")
+                .tag("handler", handlerName)
+                .baseUnit("statements")
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("shareit.sql.rows")
+                .tag("handler", handlerName)
+                .baseUnit("rows")
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("shareit.sql.time")
+                .tag("handler", handlerName)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static String handlerName(HandlerMethod handler) {
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+}
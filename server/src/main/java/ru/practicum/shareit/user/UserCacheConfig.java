@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserCacheConfig {
+    // @CacheEvict runs when update/deleteById return, before their transaction commits; a read in between
+    // would cache the old row again. Transaction-aware caches defer the eviction to afterCommit.
+    @Bean
+    public static BeanPostProcessor transactionAwareCacheManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager && !(bean instanceof TransactionAwareCacheManagerProxy)) {
+                    return new TransactionAwareCacheManagerProxy((CacheManager) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.BroadcastEventHandler;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictor implements BroadcastEventHandler {
+    private final CacheManager cacheManager;
+
+    @Override
+    public boolean supports(EventType type) {
+        return type == EventType.USER_UPDATED || type == EventType.USER_DELETED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        Cache cache = cacheManager.getCache(UserServiceImpl.USERS_CACHE);
+        if (cache != null) {
+            cache.evict(event.getAggregateId());
+        }
+    }
+}
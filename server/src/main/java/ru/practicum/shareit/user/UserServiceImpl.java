@@ -1,9 +1,13 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEventPublisher;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -14,7 +18,9 @@ import java.util.List;
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    public static final String USERS_CACHE = "users";
     private final UserRepository repository;
+    private final OutboxEventPublisher outboxEventPublisher;
 
     @Override
     public List<User> getAll() {
@@ -31,11 +37,15 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    // @CacheEvict drops this instance's copy on commit; UserCacheEvictor drops the copies held by other instances
     @Override
     @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
     public UserDto update(Long id, User user) {
         try {
-            return UserMapper.toUserDto(checkUpdate(id, user));
+            User updated = checkUpdate(id, user);
+            outboxEventPublisher.publish(EventType.USER_UPDATED, id);
+            return UserMapper.toUserDto(updated);
         } catch (DataIntegrityViolationException e) {
             throw new DataIntegrityViolationException("User with email: " + user.getEmail() + " is already exist.");
         }
@@ -43,18 +53,25 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
     public boolean deleteById(Long id) {
         repository.deleteById(id);
+        outboxEventPublisher.publish(EventType.USER_DELETED, id);
         return true;
     }
 
     @Override
+    @Cacheable(cacheNames = USERS_CACHE)
     public User findById(Long id) {
+        return get(id);
+    }
+
+    private User get(Long id) {
         return repository.findById(id).orElseThrow(() -> new NotFoundException("User with ID=" + id + " not found"));
     }
 
     private User checkUpdate(Long id, User user) {
-        User findUser = findById(id);
+        User findUser = get(id);
         if (user.getName() != null && !user.getName().isBlank()) {
             findUser.setName(user.getName());
         }
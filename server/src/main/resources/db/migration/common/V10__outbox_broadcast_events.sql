@@ -0,0 +1,2 @@
+-- Broadcast rows are never claimed: every instance polls them and they expire after shareit.events.broadcast-retention.
+ALTER TABLE outbox_events ADD COLUMN broadcast BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,3 @@
+-- Served the last/next booking lookups that moved to BookingTimeline. Owner lists filtered by status join through
+-- bookings_item_start_idx, which already carries status.
+DROP INDEX IF EXISTS bookings_item_status_start_idx;
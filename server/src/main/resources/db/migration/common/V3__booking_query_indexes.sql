@@ -0,0 +1,26 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx
+    ON bookings (booker_id, start_date DESC, id DESC, end_date, status, item_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx
+    ON bookings (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_item_end_idx
+    ON bookings (booker_id, item_id, end_date, status);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx
+    ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx
+    ON bookings (item_id, start_date DESC, id DESC, end_date, status);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx
+    ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx
+    ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx
+    ON comments (item_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx
+    ON requests (requester_id, date_created DESC);
@@ -0,0 +1,13 @@
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id           BIGINT PRIMARY KEY          NOT NULL,
+    event_type   VARCHAR(64)                 NOT NULL,
+    aggregate_id BIGINT                      NOT NULL,
+    created      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts     INT                         NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS outbox_events_created_idx
+    ON outbox_events (created, id);
@@ -0,0 +1,3 @@
+-- One row per subscribed handler, so each handler is claimed and retried on its own.
+-- Rows written before this column existed keep NULL and are delivered to every handler.
+ALTER TABLE outbox_events ADD COLUMN handler VARCHAR(64);
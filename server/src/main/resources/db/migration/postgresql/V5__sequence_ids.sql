@@ -0,0 +1,39 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+ALTER TABLE users
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users
+    ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50;
+ALTER TABLE requests
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests
+    ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER SEQUENCE requests_seq OWNED BY requests.id;
+SELECT setval('requests_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM requests), false);
+
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+ALTER TABLE items
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items
+    ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items), false);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+ALTER TABLE bookings
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings
+    ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings), false);
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+ALTER TABLE comments
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments
+    ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM comments), false);
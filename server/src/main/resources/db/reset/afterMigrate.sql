@@ -0,0 +1,19 @@
+DELETE
+FROM outbox_events;
+DELETE
+FROM comments;
+DELETE
+FROM bookings;
+DELETE
+FROM items;
+DELETE
+FROM users;
+DELETE
+FROM requests;
+
+ALTER SEQUENCE outbox_events_seq RESTART WITH 1;
+ALTER SEQUENCE comments_seq RESTART WITH 1;
+ALTER SEQUENCE bookings_seq RESTART WITH 1;
+ALTER SEQUENCE items_seq RESTART WITH 1;
+ALTER SEQUENCE users_seq RESTART WITH 1;
+ALTER SEQUENCE requests_seq RESTART WITH 1;
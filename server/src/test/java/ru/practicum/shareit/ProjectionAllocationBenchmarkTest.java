@@ -0,0 +1,173 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+class ProjectionAllocationBenchmarkTest {
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS = 1_000;
+    private static final int PAGE = 100;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    TransactionTemplate readOnly;
+    long ownerId;
+
+    @BeforeEach
+    void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@projection.ru')");
+        ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'owner@projection.ru'", Long.class);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            users.add(new Object[]{"booker" + i, "booker" + i + "@projection.ru"});
+            items.add(new Object[]{"item" + i, "projection item " + i, true, ownerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                items);
+        List<Long> bookerIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE 'booker%@projection.ru' ORDER BY id", Long.class);
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM items WHERE owner_id = ? ORDER BY id",
+                Long.class, ownerId);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new Object[]{Timestamp.valueOf(start.plusDays(i)), Timestamp.valueOf(start.plusDays(i + 1)),
+                    itemIds.get(i % ITEMS), bookerIds.get(i % ITEMS), "APPROVED"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?)", ownerId);
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%@projection.ru'");
+    }
+
+    @Test
+    void compareEntityMappingWithProjections() {
+        PageRequest bookingPage = PageRequest.of(0, PAGE, BookingRepository.SORT_BY_DESC);
+        Result bookingEntities = measure(() -> entityManager.createQuery(
+                        "select b from Booking b where b.item.owner.id = ?1 order by b.start desc, b.id desc",
+                        Booking.class)
+                .setParameter(1, ownerId)
+                .setHint("javax.persistence.fetchgraph",
+                        entityManager.getEntityGraph(BookingRepository.WITH_ITEM_AND_BOOKER))
+                .setMaxResults(PAGE)
+                .getResultList()
+                .stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList()));
+        Result bookingProjection = measure(() -> bookingRepository.findAllByOwner(ownerId, bookingPage));
+
+        PageRequest itemPage = PageRequest.of(0, PAGE);
+        Result itemEntities = measure(() -> entityManager.createQuery(
+                        "select i from Item i where i.owner.id = ?1 order by i.id", Item.class)
+                .setParameter(1, ownerId)
+                .setMaxResults(PAGE)
+                .getResultList()
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()));
+        Result itemProjection = measure(() -> itemRepository.findAllByOwnerIdOrderById(ownerId, itemPage));
+
+        assertEquals(bookingEntities.rows, bookingProjection.rows);
+        assertEquals(itemEntities.rows, itemProjection.rows);
+        assertEquals(0, bookingProjection.entitiesLoaded);
+        assertEquals(0, itemProjection.entitiesLoaded);
+
+        log.info("{} bookings per page: entities {} bytes/op ({} entities loaded), projection {} bytes/op", PAGE,
+                bookingEntities.bytesPerOp, bookingEntities.entitiesLoaded, bookingProjection.bytesPerOp);
+        log.info("{} items per page: entities {} bytes/op ({} entities loaded), projection {} bytes/op", PAGE,
+                itemEntities.bytesPerOp, itemEntities.entitiesLoaded, itemProjection.bytesPerOp);
+    }
+
+    private Result measure(Supplier<List<?>> query) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            readOnly.execute(status -> query.get());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<?> rows = readOnly.execute(status -> query.get());
+        long entitiesLoaded = statistics.getEntityLoadCount();
+
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            readOnly.execute(status -> query.get());
+        }
+        allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+        return new Result(rows, allocated / ITERATIONS, entitiesLoaded);
+    }
+
+    private static class Result {
+        final List<?> rows;
+        final long bytesPerOp;
+        final long entitiesLoaded;
+
+        Result(List<?> rows, long bytesPerOp, long entitiesLoaded) {
+            this.rows = rows;
+            this.bytesPerOp = bytesPerOp;
+            this.entitiesLoaded = entitiesLoaded;
+        }
+    }
+}
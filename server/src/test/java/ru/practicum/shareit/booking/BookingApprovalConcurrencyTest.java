@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingApprovalConcurrencyTest {
+    private static final int SLOTS = 10;
+    private static final int BOOKINGS_PER_SLOT = 3;
+    private static final int APPROVALS_PER_BOOKING = 4;
+    private static final int THREADS = 32;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    long ownerId;
+    Map<Long, Integer> slotByBooking;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@approve.ru')");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('booker', 'booker@approve.ru')");
+        ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'owner@approve.ru'", Long.class);
+        Long bookerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'booker@approve.ru'",
+                Long.class);
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) " +
+                "VALUES ('item', 'approve item', true, ?)", ownerId);
+        Long itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE owner_id = ?", Long.class, ownerId);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            for (int i = 0; i < BOOKINGS_PER_SLOT; i++) {
+                LocalDateTime slotStart = start.plusHours(slot).plusMinutes(i * 10L);
+                bookings.add(new Object[]{Timestamp.valueOf(slotStart), Timestamp.valueOf(slotStart.plusMinutes(30)),
+                        itemId, bookerId, "WAITING"});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+
+        slotByBooking = new ConcurrentHashMap<>();
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM bookings WHERE item_id = ? ORDER BY start_date",
+                Long.class, itemId);
+        for (int i = 0; i < ids.size(); i++) {
+            slotByBooking.put(ids.get(i), i / BOOKINGS_PER_SLOT);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?)", ownerId);
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%@approve.ru'");
+    }
+
+    @Test
+    void concurrentApprovalsNeverDoubleBookASlot() throws Exception {
+        Map<Long, AtomicInteger> approvedResponses = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int round = 0; round < APPROVALS_PER_BOOKING; round++) {
+            for (Long bookingId : slotByBooking.keySet()) {
+                statuses.add(executor.submit(() -> {
+                    ready.await();
+                    int status = mockMvc.perform(patch("/bookings/{id}", bookingId)
+                                    .header("X-Sharer-User-Id", ownerId)
+                                    .param("approved", "true"))
+                            .andReturn().getResponse().getStatus();
+                    if (status == 200) {
+                        approvedResponses.computeIfAbsent(bookingId, id -> new AtomicInteger()).incrementAndGet();
+                    }
+                    return status;
+                }));
+            }
+        }
+        ready.countDown();
+        for (Future<Integer> status : statuses) {
+            int code = status.get();
+            assertTrue(code == 200 || code == 400 || code == 409, "Unexpected status " + code);
+        }
+        executor.shutdown();
+
+        List<Long> approved = jdbcTemplate.queryForList(
+                "SELECT id FROM bookings WHERE status = 'APPROVED' AND item_id IN " +
+                        "(SELECT id FROM items WHERE owner_id = ?)", Long.class, ownerId);
+        assertEquals(approved.size(), approvedResponses.size());
+        approvedResponses.values().forEach(count -> assertEquals(1, count.get()));
+        assertEquals(approved.size(), approved.stream().map(slotByBooking::get).distinct().count());
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class BookingBatchBenchmarkTest {
+    private static final int ITEMS = 50;
+    private static final int BOOKINGS = 1_000;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    long bookerId;
+    List<BookingIncomingDto> bookings;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@batch.ru')");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('booker', 'booker@batch.ru')");
+        Long ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'owner@batch.ru'", Long.class);
+        bookerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'booker@batch.ru'", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item" + i, "batch item " + i, true, ownerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                items);
+        List<Long> itemIds = jdbcTemplate.queryForList(
+                "SELECT id FROM items WHERE description LIKE 'batch item %' ORDER BY id", Long.class);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(BookingIncomingDto.builder()
+                    .itemId(itemIds.get(i % ITEMS))
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE booker_id = ?", bookerId);
+        jdbcTemplate.update("DELETE FROM items WHERE description LIKE 'batch item %'");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%@batch.ru'");
+    }
+
+    @Test
+    void compareBatchWithSingleSaves() {
+        long started = System.nanoTime();
+        for (BookingIncomingDto booking : bookings) {
+            bookingService.save(bookerId, booking);
+        }
+        long single = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        List<BookingBatchResultDto> results = bookingService.saveAll(bookerId, bookings);
+        long batch = System.nanoTime() - started;
+
+        assertEquals(BOOKINGS, results.stream().filter(result -> result.getStatus() == 201).count());
+        log.info("{} bookings: single saves {}ms, batch {}ms", BOOKINGS, single / 1_000_000, batch / 1_000_000);
+    }
+}
@@ -7,24 +7,31 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enumBooking.Status;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.ndjson.NdjsonWriter;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
+@Import(NdjsonWriter.class)
 public class BookingControllerTest {
     @Autowired
     MockMvc mvc;
@@ -73,6 +80,28 @@ public class BookingControllerTest {
         verify(bookingService).save(anyLong(), any());
     }
 
+    @SneakyThrows
+    @Test
+    void createBatchReturnsResultPerEntry() {
+        when(bookingService.saveAll(anyLong(), anyList())).thenReturn(List.of(
+                BookingBatchResultDto.created(0, BookingMapper.toBookingDto(booking)),
+                BookingBatchResultDto.failed(1, HttpStatus.NOT_FOUND, "Item with ID=99 not found")));
+        mvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                .header("X-Sharer-User-Id", 1L)
+                .content(objectMapper.writeValueAsString(List.of(bookingIncomingDto, bookingIncomingDto)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].booking.id").value(booking.getId()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].error").value("Item with ID=99 not found"));
+
+        verify(bookingService).saveAll(eq(1L), argThat(bookings -> bookings.size() == 2));
+    }
+
     @SneakyThrows
     @Test
     void approveRequestWithOk() {
@@ -177,4 +206,40 @@ public class BookingControllerTest {
 
         verify(bookingService, never()).findAllForOwner(anyLong(), any(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void findAllByUserReturnsNextCursor() {
+        when(bookingService.findAllForBookerAfter(anyLong(), anyString(), any(), anyInt()))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
+        String after = new BookingCursor(booking.getStart().plusDays(1), 2L).encode();
+
+        mvc.perform(MockMvcRequestBuilders.get("/bookings")
+                .header("X-Sharer-User-Id", 1L)
+                .param("state", "ALL")
+                .param("from", "0")
+                .param("size", "1")
+                .param("after", after)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(booking.getId()))
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(BookingMapper.toBookingDto(booking)).encode()));
+
+        verify(bookingService, never()).findAllForBooker(anyLong(), any(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllByOwnerWithBadCursor() {
+        mvc.perform(MockMvcRequestBuilders.get("/bookings/owner")
+                .header("X-Sharer-User-Id", 1L)
+                .param("state", "ALL")
+                .param("from", "0")
+                .param("size", "20")
+                .param("after", "???")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).findAllForOwnerAfter(anyLong(), any(), any(), anyInt());
+    }
+}
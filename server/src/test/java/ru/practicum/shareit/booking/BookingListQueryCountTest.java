@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BookingListQueryCountTest {
+    private static final int ITEMS = 20;
+    private static final int MAX_STATEMENTS = 3;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    long ownerId;
+    long bookerId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@graph.ru')");
+        ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'owner@graph.ru'", Long.class);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            users.add(new Object[]{"booker" + i, "booker" + i + "@graph.ru"});
+            items.add(new Object[]{"item" + i, "graph item " + i, true, ownerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                items);
+        List<Long> bookerIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE 'booker%@graph.ru' ORDER BY id", Long.class);
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM items WHERE owner_id = ? ORDER BY id",
+                Long.class, ownerId);
+        bookerId = bookerIds.get(0);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < ITEMS * 2; i++) {
+            bookings.add(new Object[]{Timestamp.valueOf(start.plusHours(i)), Timestamp.valueOf(start.plusHours(i + 1)),
+                    itemIds.get(i % ITEMS), bookerIds.get(i % 2 == 0 ? 0 : i % ITEMS), "WAITING"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?)", ownerId);
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%@graph.ru'");
+    }
+
+    @Test
+    void ownerListIssuesConstantNumberOfStatements() throws Exception {
+        long small = countStatements("/bookings/owner", ownerId, 5);
+        long large = countStatements("/bookings/owner", ownerId, ITEMS * 2);
+
+        assertEquals(small, large);
+        assertTrue(large <= MAX_STATEMENTS, "Owner list issued " + large + " statements");
+    }
+
+    @Test
+    void bookerListIssuesConstantNumberOfStatements() throws Exception {
+        long small = countStatements("/bookings", bookerId, 5);
+        long large = countStatements("/bookings", bookerId, ITEMS);
+
+        assertEquals(small, large);
+        assertTrue(large <= MAX_STATEMENTS, "Booker list issued " + large + " statements");
+    }
+
+    private long countStatements(String path, long userId, int size) throws Exception {
+        mockMvc.perform(get(path).header("X-Sharer-User-Id", userId)
+                .param("state", "ALL").param("from", "0").param("size", String.valueOf(size)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(path).header("X-Sharer-User-Id", userId)
+                        .param("state", "ALL").param("from", "0").param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(size));
+        return statistics.getPrepareStatementCount();
+    }
+}
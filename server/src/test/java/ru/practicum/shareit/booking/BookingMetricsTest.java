@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class BookingMetricsTest {
+    SimpleMeterRegistry meterRegistry;
+    BookingMetrics bookingMetrics;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingMetrics = new BookingMetrics(meterRegistry);
+    }
+
+    @Test
+    void countsBookingEvents() {
+        for (int i = 0; i < 3; i++) {
+            bookingMetrics.handle(event(EventType.BOOKING_CREATED));
+        }
+        bookingMetrics.handle(event(EventType.BOOKING_APPROVED));
+        bookingMetrics.handle(event(EventType.BOOKING_REJECTED));
+
+        assertEquals(3.0, count("created"));
+        assertEquals(1.0, count("approved"));
+        assertEquals(1.0, count("rejected"));
+    }
+
+    @Test
+    void ignoresOtherEvents() {
+        bookingMetrics.handle(event(EventType.COMMENT_CREATED));
+
+        assertFalse(bookingMetrics.supports(EventType.COMMENT_CREATED));
+        assertEquals(0.0, count("created"));
+        assertEquals(0.0, count("approved"));
+        assertEquals(0.0, count("rejected"));
+    }
+
+    private static OutboxEvent event(EventType type) {
+        return OutboxEvent.builder().id(1L).type(type).aggregateId(1L).build();
+    }
+
+    private double count(String event) {
+        return meterRegistry.get("shareit.bookings").tag("event", event).counter().count();
+    }
+}
@@ -0,0 +1,240 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enumBooking.Status;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryBenchmarkTest {
+    private static final String INDEX_MIGRATION = "db/migration/common/V3__booking_query_indexes.sql";
+    private static final String INDEX_CLEANUP_MIGRATION = "db/migration/common/V11__drop_unused_booking_indexes.sql";
+    private static final Pattern INDEX_NAME = Pattern.compile("CREATE INDEX IF NOT EXISTS (\\w+)");
+    private static final int USERS = 500;
+    private static final int ITEMS = 2_000;
+    private static final int BOOKINGS = 100_000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    DataSource dataSource;
+
+    LocalDateTime now;
+    long ownerId;
+    long bookerId;
+
+    @BeforeAll
+    void seed() {
+        Random random = new Random(42);
+        now = LocalDateTime.now().withNano(0);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"bench" + i, "bench" + i + "@bench.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users);
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE 'bench%@bench.ru' ORDER BY id", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item" + i, "bench item " + i, true, userIds.get(i % USERS)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                items);
+        List<Long> itemIds = jdbcTemplate.queryForList(
+                "SELECT id FROM items WHERE description LIKE 'bench item %' ORDER BY id", Long.class);
+
+        Status[] statuses = Status.values();
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365) - 24 * 180);
+            bookings.add(new Object[]{start, start.plusHours(1 + random.nextInt(72)),
+                    itemIds.get(random.nextInt(ITEMS)), userIds.get(random.nextInt(USERS)),
+                    statuses[random.nextInt(statuses.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status)" +
+                " VALUES (?, ?, ?, ?, ?)", bookings);
+
+        ownerId = userIds.get(0);
+        bookerId = userIds.get(1);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE booker_id IN" +
+                " (SELECT id FROM users WHERE email LIKE 'bench%@bench.ru')");
+        jdbcTemplate.update("DELETE FROM items WHERE description LIKE 'bench item %'");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'bench%@bench.ru'");
+    }
+
+    @Test
+    void compareWithAndWithoutIndexes() throws Exception {
+        Map<String, QueryCase> cases = cases();
+
+        dropIndexes();
+        Map<String, Measurement> before = measureAll(cases);
+        createIndexes();
+        Map<String, Measurement> after = measureAll(cases);
+
+        for (String name : cases.keySet()) {
+            Measurement without = before.get(name);
+            Measurement with = after.get(name);
+            log.info("{}: without indexes avg={}us p95={}us, with indexes avg={}us p95={}us\n" +
+                            "  plan without indexes:\n{}\n  plan with indexes:\n{}",
+                    name, without.avgMicros, without.p95Micros, with.avgMicros, with.p95Micros,
+                    without.plan, with.plan);
+            assertEquals(without.result, with.result, name);
+        }
+    }
+
+    private Map<String, QueryCase> cases() {
+        PageRequest page = PageRequest.of(0, 20, BookingRepository.SORT_BY_DESC);
+        Map<String, QueryCase> cases = new LinkedHashMap<>();
+        cases.put("findAllByOwnerCurrent", new QueryCase(
+                () -> ids(bookingRepository.findAllByOwnerCurrent(ownerId, now, page)),
+                "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id" +
+                        " WHERE i.owner_id = ? AND ? BETWEEN b.start_date AND b.end_date" +
+                        " ORDER BY b.start_date, b.id DESC LIMIT 20",
+                ownerId, now));
+        cases.put("findAllFutureForBooker", new QueryCase(
+                () -> ids(bookingRepository.findAllFutureForBooker(bookerId, now, page)),
+                "SELECT b.* FROM bookings b WHERE b.booker_id = ? AND b.start_date > ?" +
+                        " ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+                bookerId, now));
+        return cases;
+    }
+
+    private Map<String, Measurement> measureAll(Map<String, QueryCase> cases) {
+        Map<String, Measurement> measurements = new LinkedHashMap<>();
+        cases.forEach((name, queryCase) -> measurements.put(name, measure(queryCase)));
+        return measurements;
+    }
+
+    private Measurement measure(QueryCase queryCase) {
+        Object result = null;
+        for (int i = 0; i < WARMUP; i++) {
+            result = queryCase.query.get();
+        }
+        long[] timings = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            queryCase.query.get();
+            timings[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(timings);
+        String plan = jdbcTemplate.queryForList("EXPLAIN " + queryCase.sql, queryCase.args).stream()
+                .map(row -> String.valueOf(row.values().iterator().next()))
+                .collect(Collectors.joining("\n"));
+        return new Measurement(Arrays.stream(timings).sum() / ITERATIONS / 1_000,
+                timings[(int) (ITERATIONS * 0.95)] / 1_000, plan, result);
+    }
+
+    private List<String> indexNames() throws Exception {
+        Resource migration = new ClassPathResource(INDEX_MIGRATION);
+        Matcher matcher = INDEX_NAME.matcher(new String(migration.getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8));
+        List<String> names = new ArrayList<>();
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        assertFalse(names.isEmpty());
+        return names;
+    }
+
+    private void dropIndexes() throws Exception {
+        for (String name : indexNames()) {
+            try {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS " + name);
+            } catch (DataAccessException e) {
+                // H2 reuses an existing index for a foreign key declared after it and refuses to drop it
+                log.info("Keeping index {}: {}", name, e.getMostSpecificCause().getMessage());
+            }
+        }
+        analyze();
+    }
+
+    private void createIndexes() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(INDEX_MIGRATION));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(INDEX_CLEANUP_MIGRATION));
+        }
+        analyze();
+    }
+
+    private void analyze() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                jdbcTemplate.execute("ANALYZE bookings");
+                jdbcTemplate.execute("ANALYZE items");
+            }
+        }
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+
+    private static class QueryCase {
+        final Supplier<Object> query;
+        final String sql;
+        final Object[] args;
+
+        QueryCase(Supplier<Object> query, String sql, Object... args) {
+            this.query = query;
+            this.sql = sql;
+            this.args = args;
+        }
+    }
+
+    private static class Measurement {
+        final long avgMicros;
+        final long p95Micros;
+        final String plan;
+        final Object result;
+
+        Measurement(long avgMicros, long p95Micros, String plan, Object result) {
+            this.avgMicros = avgMicros;
+            this.p95Micros = p95Micros;
+            this.plan = plan;
+            this.result = result;
+        }
+    }
+}
@@ -8,25 +8,39 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enumBooking.Status;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEventPublisher;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.InvalidStateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,9 +49,17 @@ public class BookingServiceImplTest {
     @Mock
     BookingRepository bookingRepository;
     @Mock
-    UserRepository userRepository;
+    UserService userService;
     @Mock
     ItemRepository itemRepository;
+    @Mock
+    BookingTimeline bookingTimeline;
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    OutboxEventPublisher outboxEventPublisher;
+    @Mock
+    PlatformTransactionManager transactionManager;
     @InjectMocks
     BookingServiceImpl bookingService;
     BookingIncomingDto bookingIncomingDto;
@@ -67,7 +89,7 @@ public class BookingServiceImplTest {
     @Test
     void saveWithOk() {
         item.setOwner(User.builder().id(2L).build());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any())).thenReturn(booking);
 
@@ -79,18 +101,31 @@ public class BookingServiceImplTest {
         assertEquals(Status.WAITING, actualBooking.getStatus());
         assertEquals(actualBooking.getBooker().getId(), user.getId());
         verify(bookingRepository).save(any());
+        verify(outboxEventPublisher).publish(EventType.BOOKING_CREATED, booking.getId());
+    }
+
+    @Test
+    void saveOverlappingApprovedBooking() {
+        item.setOwner(User.builder().id(2L).build());
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingTimeline.overlaps(item.getId(), bookingIncomingDto.getStart(), bookingIncomingDto.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.save(user.getId(), bookingIncomingDto));
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void saveUserEmpty() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
         assertThrows(NotFoundException.class, () -> bookingService.save(user.getId(), bookingIncomingDto));
         verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void saveItemEmpty() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.save(user.getId(), bookingIncomingDto));
@@ -100,7 +135,7 @@ public class BookingServiceImplTest {
 
     @Test
     void saveAvailableFalse() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         item.setOwner(User.builder().id(2L).build());
         item.setAvailable(false);
@@ -108,25 +143,83 @@ public class BookingServiceImplTest {
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    void saveAllReturnsResultPerEntry() {
+        User owner = User.builder().id(2L).build();
+        item.setOwner(owner);
+        Item unavailable = Item.builder().id(3L).owner(owner).available(false).build();
+        Item own = Item.builder().id(4L).owner(user).available(true).build();
+        List<BookingIncomingDto> dtos = List.of(
+                bookingIncomingDto,
+                BookingIncomingDto.builder().itemId(99L).build(),
+                BookingIncomingDto.builder().itemId(unavailable.getId()).build(),
+                BookingIncomingDto.builder().itemId(own.getId()).build(),
+                bookingIncomingDto);
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item, unavailable, own));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookingBatchResultDto> results = bookingService.saveAll(user.getId(), dtos);
+
+        assertEquals(5, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(item.getId(), results.get(0).getBooking().getItem().getId());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals(400, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+        assertEquals(201, results.get(4).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        verify(itemRepository).findAllById(Set.of(item.getId(), 99L, unavailable.getId(), own.getId()));
+        verify(bookingRepository).saveAll(argThat(bookings -> ((List<Booking>) bookings).size() == 2));
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void saveAllUserNotFound() {
+        when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
+
+        assertThrows(NotFoundException.class, () -> bookingService.saveAll(user.getId(), List.of(bookingIncomingDto)));
+
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void approveOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(bookingRepository.get(anyLong())).thenReturn(booking);
 
         BookingDto approvedBookingDto = bookingService.approve(1L, booking.getId(), true);
 
         assertEquals(approvedBookingDto.getStatus(), Status.APPROVED);
+        verify(entityManager).lock(item, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        verify(bookingTimeline).add(booking);
+        verify(outboxEventPublisher).publish(EventType.BOOKING_APPROVED, booking.getId());
+    }
+
+    @Test
+    void approveOverlappingInDatabase() {
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(bookingRepository.get(anyLong())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("overlap"));
+
+        assertThrows(ConflictException.class, () -> bookingService.approve(1L, booking.getId(), true));
     }
 
     @Test
     void approveNotOwner() {
+        User notOwner = User.builder().id(2L).name("notOwner").email("notOwner@email.ru").build();
+        when(userService.findById(notOwner.getId())).thenReturn(notOwner);
+        when(bookingRepository.get(booking.getId())).thenReturn(booking);
+
         assertThrows(NotFoundException.class, () -> bookingService.approve(2L, booking.getId(), true));
         verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void approveAlreadyApproved() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(bookingRepository.get(anyLong())).thenReturn(booking);
         booking.setStatus(Status.APPROVED);
         assertThrows(BadRequestException.class, () -> bookingService.approve(1L, booking.getId(), true));
@@ -135,7 +228,7 @@ public class BookingServiceImplTest {
 
     @Test
     void findByIdOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(bookingRepository.get(anyLong())).thenReturn(booking);
 
         BookingDto foundBookingDto = bookingService.findById(1L, booking.getId());
@@ -150,6 +243,10 @@ public class BookingServiceImplTest {
 
     @Test
     void findByUserIdNotFound() {
+        User stranger = User.builder().id(3L).name("stranger").email("stranger@email.ru").build();
+        when(userService.findById(stranger.getId())).thenReturn(stranger);
+        when(bookingRepository.get(booking.getId())).thenReturn(booking);
+
         assertThrows(NotFoundException.class, () -> bookingService.findById(3L, booking.getId()));
     }
 
@@ -159,10 +256,22 @@ public class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.findById(user.getId(), 3L));
     }
 
+    @Test
+    void getETagIncludesBookerVersion() {
+        BookingRepository.VersionView version = mock(BookingRepository.VersionView.class);
+        when(version.getVersion()).thenReturn(2L);
+        when(version.getItemVersion()).thenReturn(3L);
+        when(version.getBookerVersion()).thenReturn(4L);
+        when(version.getBookerId()).thenReturn(user.getId());
+        when(bookingRepository.findVersionById(booking.getId())).thenReturn(Optional.of(version));
+
+        assertEquals("b1-2-3-4", bookingService.getETag(user.getId(), booking.getId()));
+    }
+
     @Test
     void findAllByBookerIsOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        List<Booking> bookings = new ArrayList<>(List.of(booking));
+        when(userService.findById(anyLong())).thenReturn(user);
+        List<BookingDto> bookings = new ArrayList<>(List.of(BookingMapper.toBookingDto(booking)));
         when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(bookings);
         when(bookingRepository.findAllByBookerIdAndStatusEquals(anyLong(), any(), any())).thenReturn(bookings);
         when(bookingRepository.findAllByBookerCurrent(anyLong(), any(), any())).thenReturn(bookings);
@@ -179,15 +288,15 @@ public class BookingServiceImplTest {
 
     @Test
     void findAllByBookerBadState() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         assertThrows(InvalidStateException.class, () -> bookingService.findAllForBooker(booking.getBooker().getId(), "BadState", 0, 20));
     }
 
     @Test
     void findAllByOwnerIsOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findFirstByOwnerId(anyLong())).thenReturn(Optional.of(item));
-        List<Booking> bookings = new ArrayList<>(List.of(booking));
+        List<BookingDto> bookings = new ArrayList<>(List.of(BookingMapper.toBookingDto(booking)));
         when(bookingRepository.findAllByOwner(anyLong(), any())).thenReturn(bookings);
         when(bookingRepository.findAllByOwnerAndStatus(anyLong(), any(), any())).thenReturn(bookings);
         when(bookingRepository.findAllByOwnerCurrent(anyLong(), any(), any())).thenReturn(bookings);
@@ -204,8 +313,66 @@ public class BookingServiceImplTest {
 
     @Test
     void findAllByOwnerBadState() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findFirstByOwnerId(anyLong())).thenReturn(Optional.of(item));
         assertThrows(InvalidStateException.class, () -> bookingService.findAllForOwner(booking.getItem().getOwner().getId(), "BadState", 0, 20));
     }
+
+    @Test
+    void findAllByBookerAfterIsOk() {
+        when(userService.findById(anyLong())).thenReturn(user);
+        List<BookingDto> bookings = new ArrayList<>(List.of(BookingMapper.toBookingDto(booking)));
+        BookingCursor after = new BookingCursor(booking.getStart().plusDays(1), 5L);
+        when(bookingRepository.findAllByBookerIdAfter(anyLong(), any(), anyLong(), any())).thenReturn(bookings);
+        when(bookingRepository.findAllByBookerIdAndStatusAfter(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(bookings);
+        when(bookingRepository.findAllByBookerCurrentAfter(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(bookings);
+        when(bookingRepository.findAllPastForBookerAfter(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(bookings);
+        when(bookingRepository.findAllFutureForBookerAfter(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(bookings);
+
+        assertEquals(bookingService.findAllForBookerAfter(user.getId(), "ALL", after, 20).size(), 1);
+        assertEquals(bookingService.findAllForBookerAfter(user.getId(), "WAITING", after, 20).size(), 1);
+        assertEquals(bookingService.findAllForBookerAfter(user.getId(), "REJECTED", after, 20).size(), 1);
+        assertEquals(bookingService.findAllForBookerAfter(user.getId(), "CURRENT", after, 20).size(), 1);
+        assertEquals(bookingService.findAllForBookerAfter(user.getId(), "PAST", after, 20).size(), 1);
+        assertEquals(bookingService.findAllForBookerAfter(user.getId(), "FUTURE", after, 20).size(), 1);
+        verify(bookingRepository).findAllByBookerIdAfter(eq(user.getId()), eq(after.getStart()), eq(5L), any());
+    }
+
+    @Test
+    void findAllByOwnerAfterWithoutItems() {
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRepository.findFirstByOwnerId(anyLong())).thenReturn(Optional.empty());
+
+        assertTrue(bookingService.findAllForOwnerAfter(user.getId(), "ALL",
+                new BookingCursor(LocalDateTime.now(), 1L), 20).isEmpty());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 1, 2, 3, 4, 5), 42L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+        assertThrows(BadRequestException.class, () -> BookingCursor.decode("not a cursor"));
+    }
+
+    @Test
+    void streamAllForBookerFollowsCursor() {
+        when(userService.findById(anyLong())).thenReturn(user);
+        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+        List<BookingDto> fullPage = new ArrayList<>(Collections.nCopies(500, bookingDto));
+        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(fullPage);
+        when(bookingRepository.findAllByBookerIdAfter(anyLong(), any(), anyLong(), any())).thenReturn(List.of(bookingDto));
+        List<BookingDto> streamed = new ArrayList<>();
+
+        bookingService.streamAllForBooker(user.getId(), "ALL", streamed::add);
+
+        assertEquals(501, streamed.size());
+        verify(bookingRepository).findAllByBookerIdAfter(eq(user.getId()), eq(booking.getStart()), eq(booking.getId()), any());
+        verify(transactionManager, times(2)).commit(any());
+    }
 }
@@ -0,0 +1,241 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enumBooking.Status;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class BookingTimelineTest {
+    @Mock
+    BookingRepository bookingRepository;
+    @InjectMocks
+    BookingTimeline bookingTimeline;
+    Item item;
+    User booker;
+    LocalDateTime now;
+
+    @BeforeEach
+    void beforeEach() {
+        booker = new User(2L, "booker", "booker@mail.ru");
+        item = Item.builder().id(1L).name("item").owner(new User(1L, "owner", "owner@mail.ru")).build();
+        now = LocalDateTime.now();
+    }
+
+    @AfterEach
+    void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findLastAndNextFromRebuiltTimeline() {
+        when(bookingRepository.findAllByStatus(eq(Status.APPROVED), any())).thenReturn(new PageImpl<>(List.of(
+                booking(1L, now.minusDays(3)),
+                booking(2L, now.minusDays(1)),
+                booking(3L, now.plusDays(1)),
+                booking(4L, now.plusDays(2)))));
+
+        bookingTimeline.rebuild();
+
+        assertEquals(2L, bookingTimeline.findLast(item.getId(), now).getId());
+        assertEquals(booker.getId(), bookingTimeline.findLast(item.getId(), now).getBookerId());
+        assertEquals(3L, bookingTimeline.findNext(item.getId(), now).getId());
+        assertNull(bookingTimeline.findNext(item.getId(), now.plusDays(3)));
+        assertNull(bookingTimeline.findLast(99L, now));
+    }
+
+    @Test
+    void findLastEndedSkipsBookingInProgress() {
+        Booking inProgress = booking(3L, now.minusMinutes(30));
+        Booking longAgo = booking(1L, now.minusDays(3));
+        longAgo.setEnd(now.minusDays(1));
+        when(bookingRepository.findAllByStatus(eq(Status.APPROVED), any())).thenReturn(new PageImpl<>(List.of(
+                longAgo,
+                booking(2L, now.minusDays(2)),
+                inProgress)));
+
+        bookingTimeline.rebuild();
+
+        assertEquals(3L, bookingTimeline.findLast(item.getId(), now).getId());
+        assertEquals(1L, bookingTimeline.findLastEnded(item.getId(), now).getId());
+        assertNull(bookingTimeline.findLastEnded(item.getId(), now.minusDays(3)));
+        assertNull(bookingTimeline.findLastEnded(99L, now));
+    }
+
+    @Test
+    void approvalBroadcastFromAnotherInstanceIsPut() {
+        Booking approved = booking(1L, now.plusDays(1));
+        Booking rejected = booking(2L, now.plusDays(2));
+        rejected.setStatus(Status.REJECTED);
+        when(bookingRepository.findById(approved.getId())).thenReturn(Optional.of(approved));
+        when(bookingRepository.findById(rejected.getId())).thenReturn(Optional.of(rejected));
+
+        bookingTimeline.handle(approvalEvent(rejected.getId()));
+        assertNull(bookingTimeline.findNext(item.getId(), now));
+        bookingTimeline.handle(approvalEvent(approved.getId()));
+        bookingTimeline.handle(approvalEvent(approved.getId()));
+
+        assertTrue(bookingTimeline.supports(EventType.BOOKING_APPROVED));
+        assertEquals(1L, bookingTimeline.findNext(item.getId(), now).getId());
+        assertTrue(bookingTimeline.overlaps(item.getId(), now.plusDays(1), now.plusDays(1).plusMinutes(1)));
+    }
+
+    @Test
+    void addIgnoresNotApprovedBookings() {
+        Booking booking = booking(1L, now.plusDays(1));
+        booking.setStatus(Status.WAITING);
+
+        bookingTimeline.add(booking);
+
+        assertNull(bookingTimeline.findNext(item.getId(), now));
+    }
+
+    @Test
+    void addIsAppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bookingTimeline.add(booking(1L, now.plusDays(1)));
+        assertNull(bookingTimeline.findNext(item.getId(), now));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, bookingTimeline.findNext(item.getId(), now).getId());
+    }
+
+    @Test
+    void hasCompletedOnlyAfterEarliestApprovedBookingEnds() {
+        when(bookingRepository.findAllByStatus(eq(Status.APPROVED), any())).thenReturn(new PageImpl<>(List.of(
+                booking(1L, now.plusDays(1)),
+                booking(2L, now.minusDays(1)))));
+
+        bookingTimeline.rebuild();
+
+        assertTrue(bookingTimeline.hasCompleted(booker.getId(), item.getId(), now));
+        assertFalse(bookingTimeline.hasCompleted(booker.getId(), item.getId(), now.minusDays(1)));
+        assertFalse(bookingTimeline.hasCompleted(item.getOwner().getId(), item.getId(), now));
+        assertFalse(bookingTimeline.hasCompleted(booker.getId(), 99L, now));
+    }
+
+    @Test
+    void hasCompletedFallsBackToDatabaseOnMiss() {
+        when(bookingRepository.existsByBookerIdAndItemIdAndEndBeforeAndStatus(booker.getId(), item.getId(), now,
+                Status.APPROVED)).thenReturn(true);
+
+        assertTrue(bookingTimeline.hasCompleted(booker.getId(), item.getId(), now));
+        assertFalse(bookingTimeline.hasCompleted(booker.getId(), 99L, now));
+    }
+
+    @Test
+    void addRejectsOverlappingApprovedBooking() {
+        bookingTimeline.add(booking(1L, now.plusDays(1)));
+
+        assertThrows(ConflictException.class, () -> bookingTimeline.add(booking(2L, now.plusDays(1).plusMinutes(30))));
+        assertThrows(ConflictException.class, () -> bookingTimeline.add(booking(3L, now.plusDays(1).minusMinutes(30))));
+        bookingTimeline.add(booking(4L, now.plusDays(1).plusHours(1)));
+        assertTrue(bookingTimeline.overlaps(item.getId(), now.plusDays(1), now.plusDays(1).plusMinutes(1)));
+        assertFalse(bookingTimeline.overlaps(item.getId(), now.plusDays(1).minusHours(1), now.plusDays(1)));
+    }
+
+    @Test
+    void overlapsChecksEveryEarlierBookingWhenRebuiltRowsOverlap() {
+        Booking longBooking = booking(1L, now.plusDays(1));
+        longBooking.setEnd(now.plusDays(1).plusHours(10));
+        when(bookingRepository.findAllByStatus(eq(Status.APPROVED), any())).thenReturn(new PageImpl<>(List.of(
+                longBooking,
+                booking(2L, now.plusDays(1).plusHours(1)))));
+
+        bookingTimeline.rebuild();
+
+        assertTrue(bookingTimeline.overlaps(item.getId(), now.plusDays(1).plusHours(3),
+                now.plusDays(1).plusHours(4)));
+        assertFalse(bookingTimeline.overlaps(item.getId(), now.plusDays(1).plusHours(10),
+                now.plusDays(1).plusHours(11)));
+        assertThrows(ConflictException.class, () -> bookingTimeline.add(booking(3L, now.plusDays(1).plusHours(5))));
+    }
+
+    @Test
+    void pendingApprovalBlocksUntilRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bookingTimeline.add(booking(1L, now.plusDays(1)));
+        assertThrows(ConflictException.class, () -> bookingTimeline.add(booking(2L, now.plusDays(1))));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertFalse(bookingTimeline.overlaps(item.getId(), now.plusDays(1), now.plusDays(1).plusHours(1)));
+    }
+
+    @Test
+    void concurrentApprovalsOfSameSlotAcceptOnlyOne() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (long id = 1; id <= threads; id++) {
+            Booking booking = booking(id, now.plusDays(1).plusMinutes(id));
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingTimeline.add(booking);
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            accepted += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(1, accepted);
+    }
+
+    private static OutboxEvent approvalEvent(Long bookingId) {
+        return OutboxEvent.builder().id(bookingId).type(EventType.BOOKING_APPROVED).aggregateId(bookingId)
+                .broadcast(true).build();
+    }
+
+    private Booking booking(Long id, LocalDateTime start) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build();
+    }
+}
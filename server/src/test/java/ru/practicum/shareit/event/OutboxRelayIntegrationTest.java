@@ -0,0 +1,206 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.events.sweep-interval=PT1H")
+class OutboxRelayIntegrationTest {
+    private static final long DELIVERED_AGGREGATE_ID = -1L;
+    private static final long ROLLED_BACK_AGGREGATE_ID = -2L;
+    private static final long FAILING_AGGREGATE_ID = -3L;
+    private static final String FAILING_HANDLER = "failing";
+    private static final long LOCAL_BROADCAST_AGGREGATE_ID = -4L;
+    private static final long REMOTE_BROADCAST_AGGREGATE_ID = -5L;
+    private static final Set<Long> broadcastsSeen = ConcurrentHashMap.newKeySet();
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Autowired
+    OutboxEventPublisher outboxEventPublisher;
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+    @Autowired
+    OutboxRelay outboxRelay;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    TransactionTemplate transactionTemplate;
+    TransactionTemplate separateTransaction;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        separateTransaction = new TransactionTemplate(transactionManager);
+        separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id < 0");
+    }
+
+    @Test
+    void eventIsWrittenInRequestTransactionAndDrainedAfterCommit() throws InterruptedException {
+        double created = bookingsCreated();
+
+        Long eventId = transactionTemplate.execute(status -> {
+            outboxEventPublisher.publish(EventType.BOOKING_CREATED, DELIVERED_AGGREGATE_ID);
+            Long id = findEvent(DELIVERED_AGGREGATE_ID).orElseThrow().getId();
+            assertTrue(separateTransaction.execute(other -> outboxEventRepository.findById(id)).isEmpty());
+            return id;
+        });
+
+        awaitUntil(() -> outboxEventRepository.findById(eventId).isEmpty());
+        assertEquals(created + 1, bookingsCreated());
+    }
+
+    @Test
+    void eventIsDiscardedWithRolledBackTransaction() {
+        double created = bookingsCreated();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventPublisher.publish(EventType.BOOKING_CREATED, ROLLED_BACK_AGGREGATE_ID);
+            assertTrue(findEvent(ROLLED_BACK_AGGREGATE_ID).isPresent());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(findEvent(ROLLED_BACK_AGGREGATE_ID).isEmpty());
+        assertEquals(created, bookingsCreated());
+    }
+
+    @Test
+    void handlerFailureIsRetriedWithoutRedeliveringOtherHandlers() throws InterruptedException {
+        double created = bookingsCreated();
+
+        Long eventId = transactionTemplate.execute(status -> {
+            outboxEventPublisher.publish(EventType.BOOKING_CREATED, FAILING_AGGREGATE_ID);
+            return findEvent(FAILING_AGGREGATE_ID, FAILING_HANDLER).orElseThrow().getId();
+        });
+
+        awaitUntil(() -> attempts(eventId) == 1 && findEvent(FAILING_AGGREGATE_ID, "booking-metrics").isEmpty());
+
+        OutboxEvent event = outboxEventRepository.findById(eventId).orElseThrow();
+        outboxRelay.process(event);
+
+        assertEquals(2, attempts(eventId));
+        assertEquals(created + 1, bookingsCreated());
+    }
+
+    @Test
+    void broadcastIsAppliedLocallyAfterCommit() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventPublisher.publish(EventType.USER_UPDATED, LOCAL_BROADCAST_AGGREGATE_ID));
+
+        awaitUntil(() -> broadcastsSeen.contains(LOCAL_BROADCAST_AGGREGATE_ID));
+        OutboxEvent broadcast = outboxEventRepository.findAll()
+                .stream()
+                .filter(event -> event.getAggregateId() == LOCAL_BROADCAST_AGGREGATE_ID)
+                .findFirst()
+                .orElseThrow();
+        assertTrue(broadcast.isBroadcast());
+    }
+
+    @Test
+    void broadcastCommittedByAnotherInstanceIsPickedUpByPolling() {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(EventType.USER_UPDATED)
+                .aggregateId(REMOTE_BROADCAST_AGGREGATE_ID)
+                .broadcast(true)
+                .created(LocalDateTime.now())
+                .build());
+
+        outboxRelay.pollBroadcasts();
+
+        assertTrue(broadcastsSeen.contains(REMOTE_BROADCAST_AGGREGATE_ID));
+    }
+
+    private Optional<OutboxEvent> findEvent(long aggregateId) {
+        return findEvent(aggregateId, "booking-metrics");
+    }
+
+    private Optional<OutboxEvent> findEvent(long aggregateId, String handler) {
+        return outboxEventRepository.findAll()
+                .stream()
+                .filter(event -> event.getAggregateId() == aggregateId && handler.equals(event.getHandler()))
+                .findFirst();
+    }
+
+    private int attempts(Long eventId) {
+        Optional<OutboxEvent> event = outboxEventRepository.findById(eventId);
+        return event.map(OutboxEvent::getAttempts).orElse(-1);
+    }
+
+    private double bookingsCreated() {
+        return meterRegistry.get("shareit.bookings").tag("event", "created").counter().count();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition was not met in " + TIMEOUT_MILLIS + "ms");
+            Thread.sleep(20);
+        }
+    }
+
+    @TestConfiguration
+    static class FailingHandlerConfig {
+        @Bean
+        OutboxEventHandler failingHandler() {
+            return new OutboxEventHandler() {
+                @Override
+                public String name() {
+                    return FAILING_HANDLER;
+                }
+
+                @Override
+                public boolean supports(EventType type) {
+                    return type == EventType.BOOKING_CREATED;
+                }
+
+                @Override
+                public void handle(OutboxEvent event) {
+                    if (event.getAggregateId() == FAILING_AGGREGATE_ID) {
+                        throw new IllegalStateException("handler failed");
+                    }
+                }
+            };
+        }
+
+        @Bean
+        BroadcastEventHandler recordingBroadcastHandler() {
+            return new BroadcastEventHandler() {
+                @Override
+                public boolean supports(EventType type) {
+                    return type == EventType.USER_UPDATED;
+                }
+
+                @Override
+                public void handle(OutboxEvent event) {
+                    broadcastsSeen.add(event.getAggregateId());
+                }
+            };
+        }
+    }
+}
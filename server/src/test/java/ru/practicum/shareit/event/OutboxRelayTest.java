@@ -0,0 +1,210 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class OutboxRelayTest {
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+    @Mock
+    OutboxEventHandler handler;
+    @Mock
+    OutboxEventHandler otherHandler;
+    @Mock
+    BroadcastEventHandler broadcastHandler;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    SimpleMeterRegistry meterRegistry;
+    OutboxProperties properties;
+    OutboxRelay relay;
+    OutboxEvent event;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new OutboxProperties();
+        properties.setWorkers(1);
+        properties.setQueueCapacity(1);
+        relay = new OutboxRelay(outboxEventRepository, List.of(handler, otherHandler), List.of(broadcastHandler),
+                transactionManager, properties, meterRegistry);
+        lenient().when(handler.name()).thenReturn("handler");
+        lenient().when(otherHandler.name()).thenReturn("other");
+        event = OutboxEvent.builder()
+                .id(1L)
+                .type(EventType.BOOKING_CREATED)
+                .aggregateId(10L)
+                .handler("handler")
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        relay.shutdown();
+    }
+
+    @Test
+    void processDeliversClaimedEvent() {
+        when(outboxEventRepository.claim(event.getId())).thenReturn(1);
+
+        relay.process(event);
+
+        verify(handler).handle(event);
+        verify(otherHandler, never()).handle(any());
+        assertEquals(1, meterRegistry.get("shareit.events.lag").tag("type", "BOOKING_CREATED").timer().count());
+    }
+
+    @Test
+    void subscribersAreHandlersSupportingType() {
+        when(handler.supports(EventType.BOOKING_CREATED)).thenReturn(true);
+        when(otherHandler.supports(EventType.BOOKING_CREATED)).thenReturn(false);
+
+        assertEquals(List.of("handler"), relay.subscribers(EventType.BOOKING_CREATED));
+    }
+
+    @Test
+    void processDeliversEventWithoutHandlerToEverySupportingHandler() {
+        event.setHandler(null);
+        when(handler.supports(EventType.BOOKING_CREATED)).thenReturn(true);
+        when(otherHandler.supports(EventType.BOOKING_CREATED)).thenReturn(true);
+        when(outboxEventRepository.claim(event.getId())).thenReturn(1);
+
+        relay.process(event);
+
+        verify(handler).handle(event);
+        verify(otherHandler).handle(event);
+    }
+
+    @Test
+    void processSkipsEventClaimedElsewhere() {
+        when(outboxEventRepository.claim(event.getId())).thenReturn(0);
+
+        relay.process(event);
+
+        verify(handler, never()).handle(any());
+    }
+
+    @Test
+    void processCountsAttemptWhenHandlerFails() {
+        when(outboxEventRepository.claim(event.getId())).thenReturn(1);
+        when(outboxEventRepository.findAttemptsById(event.getId())).thenReturn(Optional.of(1));
+        doThrow(new IllegalStateException("handler failed")).when(handler).handle(event);
+
+        relay.process(event);
+
+        verify(outboxEventRepository).incrementAttempts(event.getId());
+        assertEquals(1.0, meterRegistry.get("shareit.events.failed").counter().count());
+        assertNull(meterRegistry.find("shareit.events.dead").counter());
+    }
+
+    @Test
+    void processCountsDeadEventFromStoredAttempts() {
+        when(outboxEventRepository.claim(event.getId())).thenReturn(1);
+        when(outboxEventRepository.findAttemptsById(event.getId()))
+                .thenReturn(Optional.of(properties.getMaxAttempts()));
+        doThrow(new IllegalStateException("handler failed")).when(handler).handle(event);
+
+        relay.process(event);
+
+        verify(outboxEventRepository).incrementAttempts(event.getId());
+        assertEquals(1.0, meterRegistry.get("shareit.events.dead").tag("type", "BOOKING_CREATED").counter().count());
+    }
+
+    @Test
+    void submitLeavesEventToSweeperWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(outboxEventRepository.claim(anyLong())).thenReturn(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(handler).handle(any());
+
+        relay.submit(event);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        relay.submit(event);
+        relay.submit(event);
+        release.countDown();
+
+        assertEquals(1.0, meterRegistry.get("shareit.events.rejected").counter().count());
+    }
+
+    @Test
+    void pollBroadcastsAppliesEachEventOnce() {
+        OutboxEvent broadcast = broadcast();
+        when(broadcastHandler.supports(EventType.USER_UPDATED)).thenReturn(true);
+        when(outboxEventRepository.findBroadcasts(any())).thenReturn(List.of(broadcast));
+
+        relay.apply(broadcast);
+        relay.pollBroadcasts();
+        relay.pollBroadcasts();
+
+        verify(broadcastHandler).handle(broadcast);
+    }
+
+    @Test
+    void pollBroadcastsRetriesEventThatFailed() {
+        OutboxEvent broadcast = broadcast();
+        when(broadcastHandler.supports(EventType.USER_UPDATED)).thenReturn(true);
+        when(outboxEventRepository.findBroadcasts(any())).thenReturn(List.of(broadcast));
+        doThrow(new IllegalStateException("handler failed")).doNothing().when(broadcastHandler).handle(broadcast);
+
+        relay.pollBroadcasts();
+        relay.pollBroadcasts();
+        relay.pollBroadcasts();
+
+        verify(broadcastHandler, times(2)).handle(broadcast);
+        assertEquals(1.0, meterRegistry.get("shareit.events.broadcast.failed").counter().count());
+    }
+
+    @Test
+    void sweepProcessesPendingEvents() {
+        when(outboxEventRepository.findPending(any(), anyInt(), any())).thenReturn(List.of(event));
+        when(outboxEventRepository.claim(event.getId())).thenReturn(1);
+
+        relay.sweep();
+
+        verify(handler).handle(event);
+    }
+
+    private static OutboxEvent broadcast() {
+        return OutboxEvent.builder()
+                .id(2L)
+                .type(EventType.USER_UPDATED)
+                .aggregateId(10L)
+                .broadcast(true)
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
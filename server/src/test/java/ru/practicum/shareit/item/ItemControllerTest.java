@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -19,17 +21,23 @@ import ru.practicum.shareit.item.comment.dto.CommentIncomingDto;
 import ru.practicum.shareit.item.comment.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemInDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.ndjson.NdjsonWriter;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
+@Import(NdjsonWriter.class)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ItemControllerTest {
     @MockBean
@@ -44,7 +52,7 @@ public class ItemControllerTest {
     @BeforeEach
     void beforeEach() {
         item = new Item(1L, "item", "itemDesc", true,
-                new User(), null, null, null, null);
+                new User(), null, null, null, null, 0L);
         itemDto = ItemInDto.builder()
                 .name("item")
                 .description("itemDesc")
@@ -78,7 +86,7 @@ public class ItemControllerTest {
     @Test
     void updateItemWithOkStatus() {
         Item updatedItem = new Item(1L, "updateItem", "updateDescr", false, new User(),
-                null, new Booking(), new Booking(), null);
+                null, new Booking(), new Booking(), null, 0L);
         when(itemService.update(anyLong(), anyLong(), any())).thenReturn(ItemMapper.toItemDto(updatedItem));
         mvc.perform(MockMvcRequestBuilders.patch("/items/{itemId}", 1)
                 .header("X-Sharer-User-Id", 1L)
@@ -132,6 +140,33 @@ public class ItemControllerTest {
         verify(itemService).findById(anyLong(), anyLong());
     }
 
+    @SneakyThrows
+    @Test
+    void getByIdSetsETag() {
+        when(itemService.getETag(anyLong(), anyLong())).thenReturn("i1-0");
+        when(itemService.findById(anyLong(), anyLong())).thenReturn(ItemMapper.toItemDto(item));
+        mvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 1L)
+                .header("X-Sharer-User-Id", 1L)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"i1-0\""))
+                .andExpect(jsonPath("$.id").value(item.getId()));
+    }
+
+    @SneakyThrows
+    @Test
+    void getByIdNotModified() {
+        when(itemService.getETag(anyLong(), anyLong())).thenReturn("i1-0");
+        mvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 1L)
+                .header("X-Sharer-User-Id", 1L)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"i1-0\"")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).findById(anyLong(), anyLong());
+    }
+
     @SneakyThrows
     @Test
     void getByIncorrectId() {
@@ -214,4 +249,37 @@ public class ItemControllerTest {
 
         verify(itemService).createComment(anyLong(), anyLong(), any());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void streamAllByUserIdWritesNdjson() {
+        Item secondItem = new Item(2L, "second", "secondDesc", true, new User(), null, null, null, null, 0L);
+        doAnswer(invocation -> {
+            Consumer<Object> consumer = invocation.getArgument(1);
+            consumer.accept(ItemMapper.toItemDto(item));
+            consumer.accept(ItemMapper.toItemDto(secondItem));
+            return null;
+        }).when(itemService).streamByUserId(anyLong(), any());
+
+        String body = mvc.perform(MockMvcRequestBuilders.get("/items/stream")
+                .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(item.getId().longValue(), objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(secondItem.getId().longValue(), objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void streamAllByUserIdWhenUserNotFound() {
+        doThrow(new NotFoundException("User not found")).when(itemService).streamByUserId(anyLong(), any());
+
+        mvc.perform(MockMvcRequestBuilders.get("/items/stream")
+                .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+class ItemInsertBenchmarkTest {
+    private static final int ITEMS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User owner;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@insert.ru").build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void compareBatchedWithUnbatchedInserts() {
+        Result unbatched = insert(1);
+        Result batched = insert(null);
+
+        log.info("{} items without JDBC batching: {} items/s, {} statements", ITEMS, unbatched.throughput,
+                unbatched.statements);
+        log.info("{} items with hibernate.jdbc.batch_size: {} items/s, {} statements", ITEMS, batched.throughput,
+                batched.statements);
+    }
+
+    private Result insert(Integer jdbcBatchSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long started = System.nanoTime();
+        for (int chunk = 0; chunk < ITEMS / CHUNK; chunk++) {
+            int offset = chunk * CHUNK;
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcBatchSize != null) {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                }
+                List<Item> items = new ArrayList<>(CHUNK);
+                for (int i = 0; i < CHUNK; i++) {
+                    Item item = new Item("item" + (offset + i), "insert item " + (offset + i), true);
+                    item.setOwner(owner);
+                    items.add(item);
+                }
+                itemRepository.saveAll(items);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        long elapsed = System.nanoTime() - started;
+        assertEquals(ITEMS, statistics.getEntityInsertCount());
+        Result result = new Result(ITEMS * 1_000_000_000L / elapsed, statistics.getPrepareStatementCount());
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+        return result;
+    }
+
+    private static class Result {
+        final long throughput;
+        final long statements;
+
+        Result(long throughput, long statements) {
+            this.throughput = throughput;
+            this.statements = statements;
+        }
+    }
+}
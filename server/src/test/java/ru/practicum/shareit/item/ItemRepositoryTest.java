@@ -6,11 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +28,11 @@ class ItemRepositoryTest {
     ItemRepository itemRepository;
     @Autowired
     UserRepository userRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    Item item;
 
     @BeforeEach
     void beforeEach() {
@@ -31,8 +40,7 @@ class ItemRepositoryTest {
                 .name("user")
                 .email("user@mail.ru")
                 .build());
-        itemRepository.save(Item.builder()
-                .id(1L)
+        item = itemRepository.save(Item.builder()
                 .name("item")
                 .description("itemDescr")
                 .available(true)
@@ -46,11 +54,64 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void itemSearchByString() {
-        List<Item> items = itemRepository.findByString("item", PageRequest.of(0, 1));
-        assertFalse(items.isEmpty());
-        assertEquals(1, items.size());
-        assertEquals(Optional.of(1L), Optional.of(items.get(0).getId()));
-        assertEquals("itemDescr", items.get(0).getDescription());
+    void findVersionById() {
+        Optional<ItemRepository.VersionView> version = itemRepository.findVersionById(item.getId());
+        assertEquals(Long.valueOf(0L), version.get().getVersion());
+        assertEquals(item.getOwner().getId(), version.get().getOwnerId());
+
+        item.setAvailable(false);
+        itemRepository.saveAndFlush(item);
+
+        assertEquals(Long.valueOf(1L), itemRepository.findVersionById(item.getId()).get().getVersion());
+    }
+
+    @Test
+    void findVersionByIdFollowsCommentAuthors() {
+        assertEquals(Long.valueOf(0L), itemRepository.findVersionById(item.getId()).get().getComments());
+        User author = userRepository.save(User.builder().name("author").email("author@mail.ru").build());
+        commentRepository.saveAndFlush(Comment.builder().text("text").item(item).author(author)
+                .created(LocalDateTime.now()).build());
+        ItemRepository.VersionView commented = itemRepository.findVersionById(item.getId()).get();
+        assertEquals(Long.valueOf(1L), commented.getComments());
+        assertEquals(Long.valueOf(0L), commented.getAuthorsVersion());
+
+        author.setName("renamed");
+        userRepository.saveAndFlush(author);
+
+        assertEquals(Long.valueOf(1L), itemRepository.findVersionById(item.getId()).get().getAuthorsVersion());
+    }
+
+    @Test
+    void findAllByRequestIdInCapsItemsPerRequest() {
+        ItemRequest popular = itemRequestRepository.saveAndFlush(ItemRequest.builder()
+                .description("popular")
+                .requester(item.getOwner())
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequest quiet = itemRequestRepository.saveAndFlush(ItemRequest.builder()
+                .description("quiet")
+                .requester(item.getOwner())
+                .created(LocalDateTime.now())
+                .build());
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(Item.builder().name("popular" + i).description("answer").available(true)
+                    .owner(item.getOwner()).requestId(popular.getId()).build());
+        }
+        Item answer = itemRepository.save(Item.builder().name("quiet").description("answer").available(false)
+                .owner(item.getOwner()).requestId(quiet.getId()).build());
+        itemRepository.flush();
+
+        List<ItemRepository.RequestItemView> items = itemRepository.findAllByRequestIdIn(
+                List.of(popular.getId(), quiet.getId()), 2);
+
+        assertEquals(3, items.size());
+        assertEquals(popular.getId(), items.get(0).getRequestId());
+        assertEquals(popular.getId(), items.get(1).getRequestId());
+        assertEquals("popular0", items.get(0).getName());
+        assertEquals(answer.getId(), items.get(2).getId());
+        assertEquals("answer", items.get(2).getDescription());
+        assertFalse(items.get(2).getAvailable());
+        assertEquals(6, itemRepository.findAllByRequestIdIn(List.of(popular.getId(), quiet.getId()),
+                Integer.MAX_VALUE).size());
     }
-}
\ No newline at end of file
+}
@@ -8,7 +8,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.BookingRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.dto.BookingBriefDto;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEventPublisher;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -19,18 +23,25 @@ import ru.practicum.shareit.item.comment.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,13 +50,19 @@ public class ItemServiceImplTest {
     @Mock
     ItemRepository itemRepository;
     @Mock
-    UserRepository userRepository;
+    UserService userService;
     @Mock
-    BookingRepository bookingRepository;
+    BookingTimeline bookingTimeline;
     @Mock
     CommentRepository commentRepository;
     @Mock
     ItemRequestRepository itemRequestRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    OutboxEventPublisher outboxEventPublisher;
+    @Mock
+    PlatformTransactionManager transactionManager;
     @InjectMocks
     ItemServiceImpl itemService;
     User user;
@@ -56,7 +73,7 @@ public class ItemServiceImplTest {
     @BeforeEach
     void beforeEach() {
         user = new User(1L, "user", "user@mail.ru");
-        item = new Item(1L, "item", "itemDesc", true, user, null, null, null, null);
+        item = new Item(1L, "item", "itemDesc", true, user, null, null, null, null, 0L);
         itemInDto = ItemInDto.builder()
                 .name("item")
                 .description("itemDesc")
@@ -69,7 +86,7 @@ public class ItemServiceImplTest {
 
     @Test
     void createItemOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(new ItemRequest()));
         when(itemRepository.save(any())).thenReturn(item);
         ItemDto itemDto1 = itemService.save(user.getId(), itemInDto);
@@ -83,14 +100,14 @@ public class ItemServiceImplTest {
 
     @Test
     void createItemWithBadUserId() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
         assertThrows(NotFoundException.class, () -> itemService.save(10L, itemInDto));
 
     }
 
     @Test
     void createItemWithBadRequestId() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> itemService.save(user.getId(), itemInDto));
     }
@@ -98,7 +115,7 @@ public class ItemServiceImplTest {
     @Test
     void updateWithOkRequest() {
         ItemInDto newItem = ItemInDto.builder().name("updateName").description("updateDescr").available(false).build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         ItemDto updateItem = itemService.update(item.getId(), user.getId(), newItem);
         assertEquals("updateName", updateItem.getName());
@@ -106,15 +123,27 @@ public class ItemServiceImplTest {
         assertEquals(false, updateItem.getAvailable());
     }
 
+    @Test
+    void updatePublishesItemUpdated() {
+        ItemInDto newItem = ItemInDto.builder().name("updateName").build();
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+
+        itemService.update(item.getId(), user.getId(), newItem);
+
+        verify(outboxEventPublisher).publish(EventType.ITEM_UPDATED, item.getId());
+        verify(itemSearchEngine, never()).index(any());
+    }
+
     @Test
     void updateWithBadIdUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
         assertThrows(NotFoundException.class, () -> itemService.update(item.getId(), user.getId(), itemInDto));
     }
 
     @Test
     void updateWithBadIdItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.update(item.getId(), user.getId(), itemInDto));
@@ -123,7 +152,7 @@ public class ItemServiceImplTest {
     @Test
     void updateWithNotOwnerId() {
         User newUser = User.builder().id(2L).name("badUser").build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(newUser));
+        when(userService.findById(anyLong())).thenReturn(newUser);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         assertThrows(ForbiddenException.class, () -> itemService.update(item.getId(), newUser.getId(), itemInDto));
@@ -131,7 +160,7 @@ public class ItemServiceImplTest {
 
     @Test
     void findByIdIsOk() {
-        lenient().when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        lenient().when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         ItemDto findItem = itemService.findById(item.getId(), user.getId());
@@ -145,7 +174,7 @@ public class ItemServiceImplTest {
 
     @Test
     void findByIdWhenItemNotFound() {
-        lenient().when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        lenient().when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.findById(item.getId(), user.getId()));
@@ -153,25 +182,30 @@ public class ItemServiceImplTest {
 
     @Test
     void findByIdWhenUserNotFound() {
-        lenient().when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        lenient().when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
         assertThrows(NotFoundException.class, () -> itemService.findById(anyLong(), item.getId()));
     }
 
     @Test
     void findAllWithOk() {
-        lenient().when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any())).thenReturn(List.of(item));
+        lenient().when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any())).thenReturn(List.of(ItemMapper.toItemDto(item)));
+        BookingBriefDto lastEnded = new BookingBriefDto();
+        lastEnded.setId(3L);
+        when(bookingTimeline.findLastEnded(eq(item.getId()), any())).thenReturn(lastEnded);
 
         List<ItemDto> items = itemService.findByUserId(user.getId(), 0, 1);
 
         assertFalse(items.isEmpty());
         assertEquals(1, items.size());
         assertEquals(item.getId(), items.get(0).getId());
+        assertEquals(3L, items.get(0).getLastBooking().getId());
+        verify(bookingTimeline, never()).findLast(anyLong(), any());
     }
 
     @Test
     void findAllWithEmptyCollection() {
-        lenient().when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        lenient().when(userService.findById(anyLong())).thenReturn(user);
         when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any())).thenReturn(List.of());
 
         List<ItemDto> actualItems = itemService.findByUserId(user.getId(), 0, 1);
@@ -181,10 +215,26 @@ public class ItemServiceImplTest {
 
     @Test
     void findAllWithEmptyUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
         assertThrows(NotFoundException.class, () -> itemService.findByUserId(anyLong(), 1, 1));
     }
 
+    @Test
+    void streamByUserIdFollowsCursor() {
+        when(userService.findById(anyLong())).thenReturn(user);
+        List<ItemDto> fullPage = new ArrayList<>(Collections.nCopies(100, ItemMapper.toItemDto(item)));
+        when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any())).thenReturn(fullPage);
+        when(itemRepository.findAllByOwnerIdAfter(anyLong(), anyLong(), any()))
+                .thenReturn(List.of(ItemMapper.toItemDto(item)));
+        List<ItemDto> streamed = new ArrayList<>();
+
+        itemService.streamByUserId(user.getId(), streamed::add);
+
+        assertEquals(101, streamed.size());
+        verify(itemRepository).findAllByOwnerIdAfter(eq(user.getId()), eq(item.getId()), any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
     @Test
     void searchWithEmptyRequest() {
         List<ItemDto> items = itemService.findByString("", 0, 1);
@@ -194,7 +244,7 @@ public class ItemServiceImplTest {
 
     @Test
     void searchWithReturnCollection() {
-        when(itemRepository.findByString(anyString(), any())).thenReturn(List.of(item));
+        when(itemSearchEngine.search(anyString(), any())).thenReturn(List.of(ItemMapper.toItemDto(item)));
 
         List<ItemDto> actualItems = itemService.findByString("item", 0, 2);
 
@@ -203,11 +253,37 @@ public class ItemServiceImplTest {
         assertEquals(actualItems.get(0), ItemMapper.toItemDto(item));
     }
 
+    @Test
+    void getETagForOwnerIncludesBookings() {
+        BookingBriefDto last = new BookingBriefDto();
+        last.setId(3L);
+        ItemRepository.VersionView version = version(2L, user.getId());
+        when(itemRepository.findVersionById(anyLong())).thenReturn(Optional.of(version));
+        when(bookingTimeline.findLast(anyLong(), any())).thenReturn(last);
+
+        assertEquals("i1-2-1-4-3-null", itemService.getETag(user.getId(), item.getId()));
+    }
+
+    @Test
+    void getETagForNotOwner() {
+        ItemRepository.VersionView version = version(2L, user.getId());
+        when(itemRepository.findVersionById(anyLong())).thenReturn(Optional.of(version));
+
+        assertEquals("i1-2-1-4", itemService.getETag(99L, item.getId()));
+    }
+
+    @Test
+    void getETagWhenItemNotFound() {
+        when(itemRepository.findVersionById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getETag(user.getId(), item.getId()));
+    }
+
     @Test
     void commentedWithOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.countCompletedBooking(anyLong(), anyLong(), any())).thenReturn(1);
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(bookingTimeline.hasCompleted(eq(user.getId()), eq(item.getId()), any())).thenReturn(true);
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
         when(commentRepository.save(any())).thenReturn(comment);
         CommentDto actualComment = itemService.createComment(user.getId(), item.getId(),
                 CommentMapper.toCommentIncomingDto(comment));
@@ -217,29 +293,40 @@ public class ItemServiceImplTest {
         assertEquals(comment.getId(), actualComment.getId());
         assertEquals(comment.getText(), actualComment.getText());
         assertEquals(user.getName(), actualComment.getAuthorName());
+        verify(itemRepository).incrementVersion(item.getId());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(outboxEventPublisher).publish(EventType.COMMENT_CREATED, comment.getId());
     }
 
     @Test
     void commentedWithoutBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.countCompletedBooking(anyLong(), anyLong(), any())).thenReturn(0);
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
         assertThrows(BadRequestException.class,
                 () -> itemService.createComment(user.getId(), item.getId(), CommentMapper.toCommentIncomingDto(comment)));
     }
 
     @Test
     void commentedWithNotFoundItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRepository.existsById(anyLong())).thenReturn(false);
         assertThrows(NotFoundException.class,
                 () -> itemService.createComment(user.getId(), item.getId(), CommentMapper.toCommentIncomingDto(comment)));
     }
 
     @Test
     void commentedWithNotFoundUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
         assertThrows(NotFoundException.class,
                 () -> itemService.createComment(user.getId(), item.getId(), CommentMapper.toCommentIncomingDto(comment)));
     }
+
+    private static ItemRepository.VersionView version(Long version, Long ownerId) {
+        ItemRepository.VersionView view = mock(ItemRepository.VersionView.class);
+        when(view.getVersion()).thenReturn(version);
+        when(view.getOwnerId()).thenReturn(ownerId);
+        when(view.getComments()).thenReturn(1L);
+        when(view.getAuthorsVersion()).thenReturn(4L);
+        return view;
+    }
 }
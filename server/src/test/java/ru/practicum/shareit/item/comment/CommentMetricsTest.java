@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.comment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommentMetricsTest {
+    SimpleMeterRegistry meterRegistry;
+    CommentMetrics commentMetrics;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        commentMetrics = new CommentMetrics(meterRegistry);
+    }
+
+    @Test
+    void countsCommentEvents() {
+        commentMetrics.handle(event(EventType.COMMENT_CREATED));
+        commentMetrics.handle(event(EventType.COMMENT_CREATED));
+
+        assertEquals(2.0, count());
+    }
+
+    @Test
+    void ignoresOtherEvents() {
+        commentMetrics.handle(event(EventType.BOOKING_CREATED));
+        commentMetrics.handle(event(EventType.BOOKING_APPROVED));
+
+        assertEquals(0.0, count());
+        assertFalse(commentMetrics.supports(EventType.BOOKING_CREATED));
+        assertTrue(commentMetrics.supports(EventType.COMMENT_CREATED));
+    }
+
+    private static OutboxEvent event(EventType type) {
+        return OutboxEvent.builder().id(1L).type(type).aggregateId(1L).build();
+    }
+
+    private double count() {
+        return meterRegistry.get("shareit.comments").counter().count();
+    }
+}
@@ -27,7 +27,7 @@ public class ItemInDtoTest {
                 .name("user")
                 .email("user@email.ru")
                 .build();
-        ItemRequest itemRequest = new ItemRequest(1L, "requestDescr", user, LocalDateTime.now());
+        ItemRequest itemRequest = new ItemRequest(1L, "requestDescr", user, LocalDateTime.now(), 0L);
         ItemInDto item = ItemInDto.builder()
                 .id(1L)
                 .name("item")
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexerTest {
+    @Mock
+    ItemRepository itemRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @InjectMocks
+    ItemSearchIndexer itemSearchIndexer;
+
+    @Test
+    void indexesCurrentStateOfItem() {
+        Item item = Item.builder().id(1L).name("item").description("itemDescr").available(true).build();
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        itemSearchIndexer.handle(event(item.getId()));
+
+        verify(itemSearchEngine).index(item);
+    }
+
+    @Test
+    void skipsItemThatNoLongerExists() {
+        when(itemRepository.findById(2L)).thenReturn(Optional.empty());
+
+        itemSearchIndexer.handle(event(2L));
+
+        verify(itemSearchEngine, never()).index(any());
+    }
+
+    @Test
+    void supportsItemEvents() {
+        assertTrue(itemSearchIndexer.supports(EventType.ITEM_CREATED));
+        assertTrue(itemSearchIndexer.supports(EventType.ITEM_UPDATED));
+        assertFalse(itemSearchIndexer.supports(EventType.BOOKING_CREATED));
+    }
+
+    private static OutboxEvent event(Long itemId) {
+        return OutboxEvent.builder().id(1L).type(EventType.ITEM_UPDATED).aggregateId(itemId).broadcast(true).build();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrigramIndexTest {
+    TrigramIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new TrigramIndex();
+        index.put(1L, "Дрель", "Простая дрель", true);
+        index.put(2L, "Отвертка", "Аккумуляторная отвертка", true);
+        index.put(3L, "Дрель ударная", "Сломана", false);
+    }
+
+    @Test
+    void searchBySubstring() {
+        assertEquals(List.of(1L), index.search("ДРЕл", 0, 10));
+        assertEquals(List.of(2L), index.search("умулятор", 0, 10));
+        assertEquals(2, index.getHits());
+        assertEquals(0, index.getMisses());
+    }
+
+    @Test
+    void searchVerifiesCandidates() {
+        index.put(4L, "abcd bcda", "", true);
+
+        assertTrue(index.search("abcda", 0, 10).isEmpty());
+        assertEquals(List.of(4L), index.search("d bcd", 0, 10));
+    }
+
+    @Test
+    void searchShortTextScansDocuments() {
+        assertEquals(List.of(2L, 1L), index.search("т", 0, 10));
+        assertEquals(0, index.getHits());
+        assertEquals(1, index.getMisses());
+    }
+
+    @Test
+    void searchRanksNameAndWordMatchesFirst() {
+        index.put(4L, "Аккумулятор", "Для шуруповерта", true);
+        index.put(5L, "Зарядка", "Заряжает аккумулятор", true);
+        index.put(6L, "Ящик для аккумуляторов", "Пластиковый", true);
+
+        assertEquals(List.of(4L, 5L, 6L, 2L), index.search("аккумулятор", 0, 10));
+        assertEquals(List.of(5L, 6L), index.search("аккумулятор", 1, 2));
+    }
+
+    @Test
+    void updateReplacesPostings() {
+        index.put(1L, "Перфоратор", "Мощный", true);
+        index.put(3L, "Дрель ударная", "Починена", true);
+
+        assertEquals(List.of(3L), index.search("дрель", 0, 10));
+        assertEquals(List.of(1L), index.search("перфо", 0, 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void unavailableItemsAreNotIndexed() {
+        index.put(2L, "Отвертка", "Аккумуляторная отвертка", false);
+
+        assertTrue(index.search("отвертка", 0, 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void searchWithPaging() {
+        index.put(4L, "Дрель новая", "Дрель", true);
+
+        assertEquals(List.of(4L), index.search("дрель", 1, 10));
+        assertEquals(List.of(1L), index.search("дрель", 0, 1));
+    }
+}
@@ -8,21 +8,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +32,7 @@ public class ItemRequestServiceImplTest {
     @Mock
     ItemRequestRepository itemRequestRepository;
     @Mock
-    UserRepository userRepository;
+    UserService userService;
     @Mock
     ItemRepository itemRepository;
     @InjectMocks
@@ -44,13 +46,13 @@ public class ItemRequestServiceImplTest {
     void beforeEach() {
         user = User.builder().id(1L).name("user").email("user@email.ru").build();
         item = Item.builder().name("item").requestId(1L).build();
-        itemRequest = new ItemRequest(1L, "description", user, LocalDateTime.now());
+        itemRequest = new ItemRequest(1L, "description", user, LocalDateTime.now(), 0L);
         itemRequestDtoResponse = ItemRequestDtoResponse.builder().description("test").build();
     }
 
     @Test
     void createWithOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRequestRepository.save(any())).thenReturn(itemRequest);
         ItemRequestDto actual = itemRequestService.create(user.getId(), itemRequestDtoResponse);
         assertEquals(1L, actual.getId());
@@ -60,15 +62,15 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void createWithNotFoundUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(anyLong())).thenThrow(new NotFoundException("User not found"));
         assertThrows(NotFoundException.class, () -> itemRequestService.create(user.getId(), itemRequestDtoResponse));
     }
 
     @Test
     void findAllByOwnerIsOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong(), any())).thenReturn(List.of(itemRequest));
-        when(itemRepository.findAllByRequestIdIn(any())).thenReturn(List.of());
+        when(itemRepository.findAllByRequestIdIn(any(), eq(Integer.MAX_VALUE))).thenReturn(List.of());
         List<ItemRequestDto> actual = itemRequestService.findAllByOwner(user.getId(), 1, 1);
         assertFalse(actual.isEmpty());
         assertEquals(1, actual.size());
@@ -81,7 +83,7 @@ public class ItemRequestServiceImplTest {
     void findAllIsOk() {
         itemRequest.setRequester(new User(2L, "user2", "user2@email.ru"));
         Page<ItemRequest> requests = new PageImpl<>(List.of(itemRequest));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRequestRepository.findAllByRequesterIdNot(anyLong(), any())).thenReturn(requests);
         List<ItemRequestDto> requestDtos = itemRequestService.findAll(user.getId(), 0, 20);
         assertEquals(1, requestDtos.size());
@@ -91,9 +93,27 @@ public class ItemRequestServiceImplTest {
         assertEquals(List.of(), requestDtos.get(0).getItems());
     }
 
+    @Test
+    void findAllCapsItemsPerRequest() {
+        ReflectionTestUtils.setField(itemRequestService, "maxItemsPerRequest", 2);
+        ItemRepository.RequestItemView answer = mock(ItemRepository.RequestItemView.class);
+        when(answer.getId()).thenReturn(5L);
+        when(answer.getRequestId()).thenReturn(itemRequest.getId());
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(itemRequestRepository.findAllByRequesterIdNot(anyLong(), any()))
+                .thenReturn(new PageImpl<>(List.of(itemRequest)));
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()), 2)).thenReturn(List.of(answer));
+
+        List<ItemRequestDto> requestDtos = itemRequestService.findAll(user.getId(), 0, 20);
+
+        assertEquals(1, requestDtos.get(0).getItems().size());
+        assertEquals(5L, requestDtos.get(0).getItems().get(0).getId());
+        assertEquals(itemRequest.getId(), requestDtos.get(0).getItems().get(0).getRequestId());
+    }
+
     @Test
     void findByIdIsOk() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.findById(anyLong())).thenReturn(user);
         when(itemRequestRepository.get(anyLong())).thenReturn(itemRequest);
 
         ItemRequestDto savedRequestDto = itemRequestService.get(user.getId(), itemRequest.getId());
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatsDataSourceTest {
+    SqlStatsDataSource dataSource;
+
+    @BeforeEach
+    void beforeEach() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-stats;DB_CLOSE_DELAY=-1");
+        dataSource = new SqlStatsDataSource(h2);
+    }
+
+    @AfterEach
+    void afterEach() {
+        SqlStats.stop();
+    }
+
+    @Test
+    void countsStatementsRowsAndTimeWhileActive() throws Exception {
+        SqlStats stats = SqlStats.start();
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS numbers (n INT)");
+                statement.executeUpdate("DELETE FROM numbers");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO numbers VALUES (?)")) {
+                for (int i = 0; i < 3; i++) {
+                    insert.setInt(1, i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement select = connection.prepareStatement("SELECT n FROM numbers");
+                 ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    rows.getInt(1);
+                }
+            }
+        }
+
+        assertEquals(4, stats.getStatements());
+        assertEquals(3, stats.getRows());
+        assertTrue(stats.getNanos() > 0);
+    }
+
+    @Test
+    void connectionsOutsideRequestAreNotTracked() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals("org.h2.jdbc.JdbcConnection", connection.getClass().getName());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class UserCacheTransactionTest {
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    User user;
+
+    @BeforeEach
+    void beforeEach() {
+        cacheManager.getCache(UserServiceImpl.USERS_CACHE).clear();
+        user = userRepository.save(new User(null, "user", "cache-user@email.ru"));
+    }
+
+    @AfterEach
+    void afterEach() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void readDuringUncommittedUpdateDoesNotOutliveCommit() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.update(user.getId(), new User(null, "updateName", null));
+            userRepository.flush();
+
+            String concurrentRead = CompletableFuture.supplyAsync(() -> userService.findById(user.getId()).getName())
+                    .join();
+            assertEquals("user", concurrentRead);
+        });
+
+        assertEquals("updateName", userService.findById(user.getId()).getName());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEvent;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class UserServiceCacheTest {
+    @Autowired
+    UserService userService;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    UserCacheEvictor userCacheEvictor;
+    @MockBean
+    UserRepository userRepository;
+    User user;
+
+    @BeforeEach
+    void beforeEach() {
+        cacheManager.getCache(UserServiceImpl.USERS_CACHE).clear();
+        user = new User(1L, "user", "user@email.ru");
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void findByIdIsServedFromCache() {
+        TransactionAwareCacheDecorator decorator =
+                (TransactionAwareCacheDecorator) cacheManager.getCache(UserServiceImpl.USERS_CACHE);
+        Cache<Object, Object> cache = ((CaffeineCache) decorator.getTargetCache()).getNativeCache();
+        long hits = cache.stats().hitCount();
+
+        userService.findById(user.getId());
+        userService.findById(user.getId());
+
+        verify(userRepository, times(1)).findById(user.getId());
+        assertEquals(hits + 1, cache.stats().hitCount());
+    }
+
+    @Test
+    void updateEvictsCachedUser() {
+        userService.findById(user.getId());
+        userService.update(user.getId(), new User(user.getId(), "updateName", null));
+        userService.findById(user.getId());
+
+        verify(userRepository, times(3)).findById(user.getId());
+    }
+
+    @Test
+    void broadcastFromAnotherInstanceEvictsCachedUser() {
+        userService.findById(user.getId());
+        userCacheEvictor.handle(OutboxEvent.builder().type(EventType.USER_UPDATED).aggregateId(user.getId()).build());
+        userService.findById(user.getId());
+
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void deleteEvictsCachedUser() {
+        userService.findById(user.getId());
+        userService.deleteById(user.getId());
+        userService.findById(user.getId());
+
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+}
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxEventPublisher;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -26,6 +28,8 @@ import static org.mockito.Mockito.*;
 public class UserServiceImplTest {
     @Mock
     UserRepository userRepository;
+    @Mock
+    OutboxEventPublisher outboxEventPublisher;
     @InjectMocks
     UserServiceImpl userService;
     User user;
@@ -51,6 +55,7 @@ public class UserServiceImplTest {
         UserDto updateUser = userService.update(newUser.getId(), newUser);
         assertEquals(newUser.getName(), updateUser.getName());
         assertEquals(newUser.getEmail(), updateUser.getEmail());
+        verify(outboxEventPublisher).publish(EventType.USER_UPDATED, user.getId());
     }
 
     @Test
@@ -90,7 +95,8 @@ public class UserServiceImplTest {
 
     @Test
     void deleteOk() {
-        userService.deleteById(anyLong());
-        verify(userRepository).deleteById(anyLong());
+        userService.deleteById(user.getId());
+        verify(userRepository).deleteById(user.getId());
+        verify(outboxEventPublisher).publish(EventType.USER_DELETED, user.getId());
     }
 }
\ No newline at end of file